@@ -0,0 +1,137 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import digraph.DiGraph;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the searches used to find the minimum path between one
+ * origin and one destination.
+ *
+ * Each map is a square grid of points of interest where neighbours are
+ * linked by a connection, one way for bridges, with random cost, distance
+ * and navigability from a fixed seed. Queries are done on a rotating sample
+ * of random pairs, with a new strategy for each query so no result is reused.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathSearchBenchmark {
+    
+    private static final long SEED = 42;
+    private static final int SAMPLE_SIZE = 1024;
+    private static final double BRIDGE_RATIO = 0.1;
+    private static final double NAVIGABLE_RATIO = 0.8;
+    
+    @Param({"10", "100", "300"})
+    private int side;
+    
+    @Param({"false", "true"})
+    private boolean navigability;
+    
+    private CompactDiGraph<PointOfInterest, Connection> graph;
+    private double[] weights;
+    private Landmarks landmarks;
+    private int[] origins;
+    private int[] destinations;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        
+        DiGraph.Builder<PointOfInterest, Connection> builder = new DiGraph.Builder<>();
+        PointOfInterest[] pois = new PointOfInterest[this.side * this.side];
+        for (int i = 0; i < pois.length; ++i) {
+            pois[i] = new PointOfInterest(i + 1, "P" + (i + 1));
+            builder.addVertex(pois[i]);
+        }
+        int connectionId = 0;
+        for (int y = 0; y < this.side; ++y) {
+            for (int x = 0; x < this.side; ++x) {
+                int poi = y * this.side + x;
+                if (x + 1 < this.side) {
+                    connectionId = link(builder, random, pois[poi], pois[poi + 1], connectionId);
+                }
+                if (y + 1 < this.side) {
+                    connectionId = link(builder, random, pois[poi], pois[poi + this.side], connectionId);
+                }
+            }
+        }
+        
+        this.graph = new CompactDiGraph<>(builder.build(), Connection::getNavigability);
+        this.weights = this.graph.weights(Connection::getDistance);
+        this.landmarks = new Landmarks(this.graph, this.weights, 8);
+        
+        this.origins = new int[SAMPLE_SIZE];
+        this.destinations = new int[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; ++i) {
+            this.origins[i] = random.nextInt(pois.length);
+            this.destinations[i] = random.nextInt(pois.length);
+        }
+        this.next = 0;
+    }
+    
+    /**
+     * Full Dijkstra from the origin, as used by the course calculation.
+     */
+    @Benchmark
+    public double dijkstraAlgorithm() {
+        nextPair();
+        CalculatedDijkstra calculatedDijkstra = PathStrategyDijkstra.dijkstraAlgorithm(this.graph, this.weights, this.navigability, this.origins[this.next]);
+        return calculatedDijkstra.getCosts()[this.destinations[this.next]];
+    }
+    
+    @Benchmark
+    public double bidirectional() {
+        nextPair();
+        return new PathStrategyBidirectional(this.graph, this.weights, this.navigability)
+                .getCost(this.origins[this.next], this.destinations[this.next]);
+    }
+    
+    @Benchmark
+    public double landmarks() {
+        nextPair();
+        return new PathStrategyLandmarks(this.graph, this.weights, this.navigability, this.landmarks)
+                .getCost(this.origins[this.next], this.destinations[this.next]);
+    }
+    
+    private int link(DiGraph.Builder<PointOfInterest, Connection> builder, Random random, PointOfInterest poi1, PointOfInterest poi2, int connectionId) {
+        boolean navigable = random.nextDouble() < NAVIGABLE_RATIO;
+        int cost = random.nextInt(21);
+        int distance = 10 + random.nextInt(191);
+        if (random.nextDouble() < BRIDGE_RATIO) {
+            Connection bridge = new ConnectionBridge(++connectionId, "c" + connectionId, cost, distance, navigable);
+            if (random.nextBoolean()) {
+                builder.addEdge(poi1, poi2, bridge);
+            } else {
+                builder.addEdge(poi2, poi1, bridge);
+            }
+        } else {
+            Connection path = new ConnectionPath(++connectionId, "c" + connectionId, cost, distance, navigable);
+            builder.addEdge(poi1, poi2, path);
+            builder.addEdge(poi2, poi1, path);
+        }
+        return connectionId;
+    }
+    
+    private void nextPair() {
+        this.next = (this.next + 1) & (SAMPLE_SIZE - 1);
+    }
+    
+}
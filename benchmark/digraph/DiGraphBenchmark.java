@@ -0,0 +1,182 @@
+package digraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the DiGraph operations over synthetic graphs.
+ *
+ * Each graph has a given number of vertices and, as density, a given average
+ * number of outbound edges per vertex, with the targets picked at random from
+ * a fixed seed so every run uses the same graphs. Queries are done on a
+ * rotating sample of random vertices and edges.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiGraphBenchmark {
+
+    private static final long SEED = 42;
+    private static final int SAMPLE_SIZE = 1024;
+
+    @Param({"10", "1000", "100000"})
+    private int vertices;
+
+    @Param({"1", "4", "16"})
+    private int density;
+
+    private int[] sources;
+    private int[] targets;
+    private DiGraph<Integer, Integer> graph;
+    private List<IVertex<Integer>> sampleVertices;
+    private List<IEdge<Integer, Integer>> sampleEdges;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+
+        int numEdges = this.vertices * this.density;
+        this.sources = new int[numEdges];
+        this.targets = new int[numEdges];
+        for (int e = 0; e < numEdges; ++e) {
+            this.sources[e] = e / this.density;
+            this.targets[e] = random.nextInt(this.vertices);
+        }
+
+        this.graph = insertAll();
+
+        this.sampleVertices = new ArrayList<>(SAMPLE_SIZE);
+        this.sampleEdges = new ArrayList<>(SAMPLE_SIZE);
+        for (int i = 0; i < SAMPLE_SIZE; ++i) {
+            this.sampleVertices.add(this.graph.getVertexByElement(random.nextInt(this.vertices)));
+
+            int e = random.nextInt(numEdges);
+            this.sampleEdges.add(this.graph.getEdgeByElement(e, this.sources[e]));
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Inserts every vertex and then every edge in an empty graph.
+     */
+    @Benchmark
+    public DiGraph<Integer, Integer> insertVertexAndEdge() {
+        return insertAll();
+    }
+
+    /**
+     * Creates the same graph as insertVertexAndEdge with a DiGraph.Builder.
+     */
+    @Benchmark
+    public DiGraph<Integer, Integer> builder() {
+        DiGraph.Builder<Integer, Integer> builder = new DiGraph.Builder<>();
+        for (int v = 0; v < this.vertices; ++v) {
+            builder.addVertex(v);
+        }
+        for (int e = 0; e < this.sources.length; ++e) {
+            builder.addEdge(this.sources[e], this.targets[e], e);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public void accedentEdges(Blackhole blackhole) {
+        for (IEdge<Integer, Integer> edge : this.graph.accedentEdges(nextVertex())) {
+            blackhole.consume(edge);
+        }
+    }
+
+    @Benchmark
+    public void incidentEdges(Blackhole blackhole) {
+        for (IEdge<Integer, Integer> edge : this.graph.incidentEdges(nextVertex())) {
+            blackhole.consume(edge);
+        }
+    }
+
+    @Benchmark
+    public boolean areAdjacent() {
+        return this.graph.areAdjacent(nextVertex(), nextVertex());
+    }
+
+    @Benchmark
+    public void edges(Blackhole blackhole) {
+        for (IEdge<Integer, Integer> edge : this.graph.edges()) {
+            blackhole.consume(edge);
+        }
+    }
+
+    @Benchmark
+    public IVertex<Integer> opposite() {
+        IEdge<Integer, Integer> edge = nextEdge();
+        return this.graph.opposite(edge.vertexOutbound(), edge);
+    }
+
+    /**
+     * Removes a vertex and inserts it back with its edges, so the graph is
+     * the same for every invocation.
+     */
+    @Benchmark
+    public void removeVertex() {
+        // Samples keep the removed instances, so resolve the current one
+        IVertex<Integer> vertex = this.graph.getVertexByElement(nextVertex().element());
+        List<IEdge<Integer, Integer>> connectedEdges = new ArrayList<>();
+        for (IEdge<Integer, Integer> edge : this.graph.accedentEdges(vertex)) {
+            connectedEdges.add(edge);
+        }
+        for (IEdge<Integer, Integer> edge : this.graph.incidentEdges(vertex)) {
+            if (edge.vertexOutbound() != vertex) {
+                connectedEdges.add(edge);
+            }
+        }
+
+        this.graph.removeVertex(vertex);
+
+        IVertex<Integer> restored = this.graph.insertVertex(vertex.element());
+        for (IEdge<Integer, Integer> edge : connectedEdges) {
+            IVertex<Integer> outbound = edge.vertexOutbound() == vertex ? restored : edge.vertexOutbound();
+            IVertex<Integer> inbound = edge.vertexInbound() == vertex ? restored : edge.vertexInbound();
+            this.graph.insertEdge(outbound, inbound, edge.element());
+        }
+    }
+
+    private DiGraph<Integer, Integer> insertAll() {
+        DiGraph<Integer, Integer> digraph = new DiGraph<>();
+        List<IVertex<Integer>> inserted = new ArrayList<>(this.vertices);
+        for (int v = 0; v < this.vertices; ++v) {
+            inserted.add(digraph.insertVertex(v));
+        }
+        for (int e = 0; e < this.sources.length; ++e) {
+            digraph.insertEdge(inserted.get(this.sources[e]), inserted.get(this.targets[e]), e);
+        }
+        return digraph;
+    }
+
+    private IVertex<Integer> nextVertex() {
+        this.next = (this.next + 1) & (SAMPLE_SIZE - 1);
+        return this.sampleVertices.get(this.next);
+    }
+
+    private IEdge<Integer, Integer> nextEdge() {
+        this.next = (this.next + 1) & (SAMPLE_SIZE - 1);
+        return this.sampleEdges.get(this.next);
+    }
+
+}
@@ -12,6 +12,8 @@ import biologicalparkticketsystem.view.IMainView;
 import biologicalparkticketsystem.view.IStatisticsView;
 import biologicalparkticketsystem.view.StatisticsView;
 import digraph.IVertex;
+import java.util.concurrent.CancellationException;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.ButtonType;
 import javafx.stage.Stage;
@@ -52,12 +54,16 @@ public class MainController {
     }
     
     /**
-     * Handler to change the selected points of interest
+     * Handler to change the selected points of interest, updating the
+     * calculated path if there is one. A single point change is repaired at
+     * once, any other change is calculated again in the background.
      * @param poi selected point of interest
      * @param oldValue old field value
      * @param newValue new field value
      */
     public void changePointOfInterest(IVertex<PointOfInterest> poi, boolean oldValue, boolean newValue) {
+        // Changing the selection cancels the path being calculated for it
+        this.view.showCalculationProgress(1.0);
         if (newValue) {
             this.model.addVisitPointOfInterest(poi.element());
             this.view.markPoiToVisit(poi);
@@ -65,6 +71,18 @@ public class MainController {
             this.model.removeVisitPointOfInterest(poi.element());
             this.view.unmarkPoiToVisit(poi);
         }
+        
+        if (this.model.hasCalculatedCourse()) {
+            try {
+                ICriteriaStrategy criteria = this.view.getCriteriaComboBox();
+                boolean navigability = this.view.getNavigability();
+                if (!this.model.updatePath(criteria, navigability)) {
+                    this.calculatePath();
+                }
+            } catch (CourseManagerException ex) {
+                this.view.showError(ex.getMessage());
+            }
+        }
     }
     
     /**
@@ -101,16 +119,39 @@ public class MainController {
     }
     
     /**
-     * Handler to calculate the selected path
+     * Handler to calculate the selected path, in anytime mode when enabled or
+     * else in the background, showing its progress
      */
     public void calculatePath() {
-        try {
-            ICriteriaStrategy criteria = this.view.getCriteriaComboBox();
-            boolean navigability = this.view.getNavigability();
-            this.model.calculatePath(criteria, navigability);
-        } catch (CourseManagerException ex) {
-            this.view.showError(ex.getMessage());
+        ICriteriaStrategy criteria = this.view.getCriteriaComboBox();
+        boolean navigability = this.view.getNavigability();
+        
+        if (this.model.isAnytimeEnabled()) {
+            this.view.showCalculationProgress(1.0);
+            try {
+                this.model.calculatePathAnytime(criteria, navigability, Platform::runLater);
+            } catch (CourseManagerException ex) {
+                this.view.showError(ex.getMessage());
+            }
+            return;
         }
+        
+        this.view.showCalculationProgress(0.0);
+        this.model.calculatePathAsync(criteria, navigability, progress -> Platform.runLater(() -> {
+            if (this.model.isCalculating()) {
+                this.view.showCalculationProgress(progress);
+            }
+        }), Platform::runLater).whenComplete((path, ex) -> {
+            // Cancelled calculations were replaced by another or by a new selection
+            if (!(ex instanceof CancellationException)) {
+                Platform.runLater(() -> {
+                    this.view.showCalculationProgress(1.0);
+                    if (ex != null) {
+                        this.view.showError(ex.getMessage());
+                    }
+                });
+            }
+        });
     }
     
     /**
@@ -3,20 +3,26 @@ package biologicalparkticketsystem.model;
 import biologicalparkticketsystem.ConfigManager;
 import biologicalparkticketsystem.DaoManager;
 import biologicalparkticketsystem.LoggerManager;
+import biologicalparkticketsystem.model.course.CalculatedParetoPaths;
+import biologicalparkticketsystem.model.course.CalculatedPath;
 import biologicalparkticketsystem.model.course.Connection;
 import biologicalparkticketsystem.model.course.CourseManager;
 import biologicalparkticketsystem.model.course.CourseManagerException;
 import biologicalparkticketsystem.model.course.ICriteriaStrategy;
 import biologicalparkticketsystem.model.course.MapManager;
 import biologicalparkticketsystem.model.course.MapManagerException;
+import biologicalparkticketsystem.model.course.ParetoPath;
 import biologicalparkticketsystem.model.course.PointOfInterest;
 import biologicalparkticketsystem.model.document.Client;
 import biologicalparkticketsystem.model.document.DocumentManager;
-import digraph.DiGraph;
+import digraph.ConcurrentDiGraph;
 import digraph.IVertex;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Observable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleConsumer;
 
 /**
  * Class responsable to control the data of main view
@@ -27,6 +33,7 @@ public class MainModel extends Observable {
     private MapManager mapManager;
     private CourseManager courseManager;
     private DocumentManager documentManager;
+    private CompletableFuture<CalculatedPath> calculation;
     
     public MainModel() {
         mustVisitPois = new ArrayList<>();
@@ -73,7 +80,7 @@ public class MainModel extends Observable {
      * Method to return the mapmanager digraph instance
      * @return digraph instance
      */
-    public DiGraph<PointOfInterest, Connection> getGraph() {
+    public ConcurrentDiGraph<PointOfInterest, Connection> getGraph() {
         return this.mapManager.getDiGraph();
     }
     
@@ -85,6 +92,15 @@ public class MainModel extends Observable {
         return this.mapManager.getStartVertex();
     }
     
+    /**
+     * Method to return the points of interest that cannot be visited by
+     * bicycle
+     * @return points of interest not reachable by bicycle
+     */
+    public List<PointOfInterest> getUnreachableByBicycle() {
+        return this.mapManager.getUnreachableByBicycle();
+    }
+    
     /**
      * Method to return if has calculated courses to undo
      * @return true if has
@@ -98,6 +114,7 @@ public class MainModel extends Observable {
      * @param poi point of interest to add
      */
     public void addVisitPointOfInterest(PointOfInterest poi) {
+        cancelCalculation();
         mustVisitPois.add(poi);
     }
     
@@ -106,6 +123,7 @@ public class MainModel extends Observable {
      * @param poi point of interest to remove
      */
     public void removeVisitPointOfInterest(PointOfInterest poi) {
+        cancelCalculation();
         mustVisitPois.remove(poi);
     }
     
@@ -121,6 +139,132 @@ public class MainModel extends Observable {
         this.notifyObservers(this.courseManager.getCalculatedPath());
     }
     
+    /**
+     * Method to calculate the path based on a criteria and navigability in
+     * the background, cancelling the previous calculation
+     * @param criteria criteria strategy
+     * @param navigability true if on bike
+     * @param progress receives the fraction of the calculation already done,
+     * from the calculation thread
+     * @param observersExecutor executor where observers are notified of the
+     * calculated path, such as the user interface thread
+     * @return future completed with the calculated path
+     */
+    public CompletableFuture<CalculatedPath> calculatePathAsync(ICriteriaStrategy criteria,
+            boolean navigability,
+            DoubleConsumer progress,
+            Executor observersExecutor) {
+        cancelCalculation();
+        this.calculation = this.courseManager.minimumCriteriaPathAsync(criteria, navigability, this.mustVisitPois, progress);
+        this.calculation.thenAcceptAsync(path -> {
+            this.setChanged();
+            this.notifyObservers(path);
+        }, observersExecutor);
+        return this.calculation;
+    }
+    
+    /**
+     * Method to calculate the path based on a criteria and navigability in
+     * anytime mode, cancelling the previous calculation. Observers are
+     * notified at once of a first path, and then of every improved path until
+     * the configured deadline.
+     * @param criteria criteria strategy
+     * @param navigability true if on bike
+     * @param observersExecutor executor where observers are notified of the
+     * improved paths, such as the user interface thread
+     * @throws CourseManagerException
+     */
+    public void calculatePathAnytime(ICriteriaStrategy criteria,
+            boolean navigability,
+            Executor observersExecutor) throws CourseManagerException {
+        cancelCalculation();
+        this.calculation = this.courseManager.minimumCriteriaPath(criteria, navigability, this.mustVisitPois,
+                path -> observersExecutor.execute(() -> {
+                    this.setChanged();
+                    this.notifyObservers(path);
+                })
+        );
+        this.setChanged();
+        this.notifyObservers(this.courseManager.getCalculatedPath());
+    }
+    
+    /**
+     * Method to return if paths are calculated in anytime mode
+     * @return true if they are
+     */
+    public boolean isAnytimeEnabled() {
+        return this.courseManager.getAnytimeDeadlineMillis() > 0;
+    }
+    
+    /**
+     * Method to return if a path is being calculated in the background
+     * @return true if it is
+     */
+    public boolean isCalculating() {
+        return this.calculation != null && !this.calculation.isDone();
+    }
+    
+    /**
+     * Method to cancel the path being calculated in the background, if any
+     */
+    public void cancelCalculation() {
+        if (this.calculation != null) {
+            this.calculation.cancel(true);
+            this.calculation = null;
+        }
+    }
+    
+    /**
+     * Method to calculate the paths that trade cost for distance, so the
+     * cheapest, the shortest or a balanced one can be chosen
+     * @param navigability true if on bike
+     * @return calculated pareto paths
+     * @throws CourseManagerException
+     */
+    public CalculatedParetoPaths calculateParetoPaths(boolean navigability) throws CourseManagerException {
+        return this.courseManager.minimumParetoPaths(navigability, this.mustVisitPois);
+    }
+    
+    /**
+     * Method to choose one of the pareto paths as the calculated path
+     * @param paretoPath pareto path chosen
+     * @param criteria criteria strategy used to measure the path cost
+     */
+    public void chooseParetoPath(ParetoPath paretoPath, ICriteriaStrategy criteria) {
+        this.courseManager.chooseParetoPath(paretoPath, criteria);
+        this.setChanged();
+        this.notifyObservers(this.courseManager.getCalculatedPath());
+    }
+    
+    /**
+     * Method to return if there is a calculated course
+     * @return true if there is
+     */
+    public boolean hasCalculatedCourse() {
+        return this.courseManager.getCalculatedPath() != null;
+    }
+    
+    /**
+     * Method to update the calculated path after a point of interest was
+     * added to or removed from the must visit list, repairing the current
+     * path instead of calculating it again. The path is cleared when the list
+     * becomes empty, and observers are notified with null.
+     * @param criteria criteria strategy
+     * @param navigability true if on bike
+     * @return false if the path must be fully calculated instead
+     * @throws CourseManagerException
+     */
+    public boolean updatePath(ICriteriaStrategy criteria, boolean navigability) throws CourseManagerException {
+        if (this.mustVisitPois.isEmpty()) {
+            this.courseManager.clearCalculatedPath();
+        } else if (!this.courseManager.updateMinimumCriteriaPath(criteria, navigability, this.mustVisitPois)) {
+            return false;
+        }
+        this.setChanged();
+        this.notifyObservers(this.courseManager.getCalculatedPath());
+        return true;
+    }
+    
     /**
      * Method to undo the calculated course
      */
@@ -142,6 +286,7 @@ public class MainModel extends Observable {
      * Method to clear calculated courses historic
      */
     public void clearCalculatedCourses() {
+        cancelCalculation();
         this.courseManager.clearCalculatedCourses();
     }
     
@@ -1,41 +1,36 @@
 package biologicalparkticketsystem.model.course;
 
-import digraph.IEdge;
-import digraph.IVertex;
-import java.util.Map;
-
 /**
  * Class to save data of calculated dijkstras
+ *
+ * Both arrays are indexed by the vertex ids of the compact digraph the
+ * dijkstra was calculated on.
  */
 public class CalculatedDijkstra {
     
-    private Map<IVertex<PointOfInterest>, Double> costs;
-    private Map<IVertex<PointOfInterest>, IVertex<PointOfInterest>> predecessors;
-    private Map<IVertex<PointOfInterest>, IEdge<Connection, PointOfInterest>> edges;
+    private double[] costs;
+    private int[] edges;
     
     public CalculatedDijkstra() {}
     
-    public Map<IVertex<PointOfInterest>, Double> getCosts() {
+    public double[] getCosts() {
         return this.costs;
     }
     
-    public void setCosts(Map<IVertex<PointOfInterest>, Double> costs) {
+    public void setCosts(double[] costs) {
         this.costs = costs;
     }
     
-    public Map<IVertex<PointOfInterest>, IVertex<PointOfInterest>> getPredecessors() {
-        return this.predecessors;
-    }
-    
-    public void setPredecessors(Map<IVertex<PointOfInterest>, IVertex<PointOfInterest>> predecessors) {
-        this.predecessors = predecessors;
-    }
-    
-    public Map<IVertex<PointOfInterest>, IEdge<Connection, PointOfInterest>> getEdges() {
+    /**
+     * Method to get the edge ids used to reach each vertex, -1 when the vertex
+     * is the origin or has not been reached
+     * @return edge ids
+     */
+    public int[] getEdges() {
         return this.edges;
     }
     
-    public void setEdges(Map<IVertex<PointOfInterest>, IEdge<Connection, PointOfInterest>> edges) {
+    public void setEdges(int[] edges) {
         this.edges = edges;
     }
     
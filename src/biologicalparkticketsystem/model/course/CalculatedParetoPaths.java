@@ -0,0 +1,68 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class to save the courses of a selection that trade cost for distance,
+ * none of them beaten by another in both, so the cheapest, the shortest and
+ * a balanced one can be offered from a single calculation
+ */
+public class CalculatedParetoPaths {
+    
+    private final List<ParetoPath> paths;
+    
+    /**
+     * Creates the paths
+     * @param paths paths none of which dominates another, at least one
+     */
+    public CalculatedParetoPaths(List<ParetoPath> paths) {
+        List<ParetoPath> sorted = new ArrayList<>(paths);
+        sorted.sort((a, b) -> a.getCostEuros() != b.getCostEuros()
+                ? Integer.compare(a.getCostEuros(), b.getCostEuros())
+                : Integer.compare(a.getDistance(), b.getDistance()));
+        this.paths = Collections.unmodifiableList(sorted);
+    }
+    
+    /**
+     * Method to get every path
+     * @return paths by increasing cost, and so decreasing distance
+     */
+    public List<ParetoPath> getPaths() {
+        return this.paths;
+    }
+    
+    public ParetoPath getCheapest() {
+        return this.paths.get(0);
+    }
+    
+    public ParetoPath getShortest() {
+        return this.paths.get(this.paths.size() - 1);
+    }
+    
+    /**
+     * Method to get the path with the lowest sum of cost and distance, each
+     * scaled from 0 for the best path to 1 for the worst
+     * @return balanced path, the cheapest one on ties
+     */
+    public ParetoPath getBalanced() {
+        double minCost = getCheapest().getCostEuros();
+        double costRange = getShortest().getCostEuros() - minCost;
+        double minDistance = getShortest().getDistance();
+        double distanceRange = getCheapest().getDistance() - minDistance;
+        
+        ParetoPath balanced = null;
+        double balancedScore = Double.POSITIVE_INFINITY;
+        for (ParetoPath path : this.paths) {
+            double score = (costRange == 0 ? 0 : (path.getCostEuros() - minCost) / costRange)
+                    + (distanceRange == 0 ? 0 : (path.getDistance() - minDistance) / distanceRange);
+            if (score < balancedScore) {
+                balanced = path;
+                balancedScore = score;
+            }
+        }
+        return balanced;
+    }
+    
+}
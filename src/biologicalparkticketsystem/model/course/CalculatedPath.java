@@ -1,10 +1,14 @@
 package biologicalparkticketsystem.model.course;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Class to save data of calculated path
+ *
+ * Paths created with every value are immutable, so they can be shared, and
+ * their setters throw UnsupportedOperationException.
  */
 public class CalculatedPath {
     
@@ -14,12 +18,50 @@ public class CalculatedPath {
     private List<PointOfInterest> pointsOfInterest;
     private List<Connection> connections;
     private List<PointOfInterest> mustVisit;
+    private ITourSolver solver;
+    private final boolean immutable;
     
     public CalculatedPath() {
         this.cost = Integer.MAX_VALUE;
         this.pointsOfInterest = new ArrayList<>();
         this.connections = new ArrayList<>();
         this.mustVisit = new ArrayList<>();
+        this.immutable = false;
+    }
+    
+    /**
+     * Creates an immutable calculated path
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param cost total cost of the path
+     * @param pointsOfInterest points of interest in visiting order
+     * @param connections connections in visiting order
+     * @param mustVisit points of interest which must be visited
+     * @param solver solver that chose the order of the path
+     */
+    public CalculatedPath(ICriteriaStrategy criteria,
+            boolean navigability,
+            int cost,
+            List<PointOfInterest> pointsOfInterest,
+            List<Connection> connections,
+            List<PointOfInterest> mustVisit,
+            ITourSolver solver) {
+        this.criteria = criteria;
+        this.navigability = navigability;
+        this.cost = cost;
+        this.pointsOfInterest = Collections.unmodifiableList(new ArrayList<>(pointsOfInterest));
+        this.connections = Collections.unmodifiableList(new ArrayList<>(connections));
+        this.mustVisit = Collections.unmodifiableList(new ArrayList<>(mustVisit));
+        this.solver = solver;
+        this.immutable = true;
+    }
+    
+    /**
+     * Method to know if the path can be changed
+     * @return true if the path is immutable
+     */
+    public boolean isImmutable() {
+        return this.immutable;
     }
     
     public ICriteriaStrategy getCriteria() {
@@ -27,6 +69,7 @@ public class CalculatedPath {
     }
     
     public void setCriteria(ICriteriaStrategy criteria) {
+        checkMutable();
         this.criteria = criteria;
     }
     
@@ -35,6 +78,7 @@ public class CalculatedPath {
     }
     
     public void setNavigability(boolean navigability) {
+        checkMutable();
         this.navigability = navigability;
     }
     
@@ -43,6 +87,7 @@ public class CalculatedPath {
     }
     
     public void setCost(int cost) {
+        checkMutable();
         this.cost = cost;
     }
     
@@ -59,9 +104,23 @@ public class CalculatedPath {
     }
     
     public void setMustVisit(List<PointOfInterest> mustVisit) {
+        checkMutable();
         this.mustVisit = mustVisit;
     }
     
+    /**
+     * Method to get the solver that chose the order of the path
+     * @return tour solver instance
+     */
+    public ITourSolver getSolver() {
+        return this.solver;
+    }
+    
+    public void setSolver(ITourSolver solver) {
+        checkMutable();
+        this.solver = solver;
+    }
+    
     /**
      * Method to create a snapshot of the class data
      * @return calculated path memento instance
@@ -73,7 +132,8 @@ public class CalculatedPath {
                 this.cost,
                 this.pointsOfInterest,
                 this.connections,
-                this.mustVisit
+                this.mustVisit,
+                this.solver
         );
     }
     
@@ -82,12 +142,20 @@ public class CalculatedPath {
      * @param memento calculated path memento instance
      */
     public void setMemento(CalculatedPathMemento memento) {
+        checkMutable();
         this.criteria = memento.getMementoCriteria();
         this.navigability = memento.getMementoNavigability();
         this.cost = memento.getMementoCost();
         this.pointsOfInterest = memento.getMementoPointsOfInterest();
         this.connections = memento.getMementoConnections();
         this.mustVisit = memento.getMementoMustVisit();
+        this.solver = memento.getMementoSolver();
+    }
+    
+    private void checkMutable() {
+        if (this.immutable) {
+            throw new UnsupportedOperationException("Calculated path is immutable");
+        }
     }
     
 }
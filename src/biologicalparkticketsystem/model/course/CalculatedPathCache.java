@@ -0,0 +1,161 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class to keep the most recently used calculated paths, so popular
+ * selections are not calculated again.
+ *
+ * Paths are kept by the sorted set of the ids of the points of interest to
+ * visit, the criteria and the navigability, and the least recently used path
+ * is evicted when the cache is full. Every path is tied to the compact
+ * digraph it was calculated on, and the cache is emptied when a different
+ * one is used, since the map changed. Hits and misses are counted to help
+ * choosing the size of the cache.
+ */
+public class CalculatedPathCache {
+    
+    private final int maxSize;
+    private final Map<Key, CalculatedPath> calculatedPaths;
+    private CompactDiGraph<PointOfInterest, Connection> graph;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Creates an empty cache
+     * @param maxSize maximum number of paths kept, 0 disables the cache
+     */
+    public CalculatedPathCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.calculatedPaths = new LinkedHashMap<Key, CalculatedPath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CalculatedPath> eldest) {
+                return size() > CalculatedPathCache.this.maxSize;
+            }
+        };
+        this.graph = null;
+        this.hits = 0;
+        this.misses = 0;
+    }
+    
+    /**
+     * Method to get the path calculated for a selection, counting a hit or a
+     * miss
+     * @param graph compact digraph of the map
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @return immutable calculated path, or null if it is not in the cache
+     */
+    public synchronized CalculatedPath get(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
+            boolean navigability,
+            List<PointOfInterest> mustVisitPois) {
+        checkGraph(graph);
+        
+        CalculatedPath calculatedPath = this.calculatedPaths.get(new Key(criteria, navigability, mustVisitPois));
+        if (calculatedPath == null) {
+            ++this.misses;
+        } else {
+            ++this.hits;
+        }
+        return calculatedPath;
+    }
+    
+    /**
+     * Method to keep the path calculated for a selection
+     * @param graph compact digraph the path was calculated on
+     * @param calculatedPath immutable calculated path
+     */
+    public synchronized void put(CompactDiGraph<PointOfInterest, Connection> graph, CalculatedPath calculatedPath) {
+        if (!calculatedPath.isImmutable()) {
+            throw new IllegalArgumentException("Only immutable calculated paths can be shared");
+        }
+        checkGraph(graph);
+        
+        if (this.maxSize > 0) {
+            this.calculatedPaths.put(new Key(calculatedPath.getCriteria(), calculatedPath.getNavigability(), calculatedPath.getMustVisit()), calculatedPath);
+        }
+    }
+    
+    /**
+     * Method to remove every path and reset the counters
+     */
+    public synchronized void clear() {
+        this.calculatedPaths.clear();
+        this.hits = 0;
+        this.misses = 0;
+    }
+    
+    public synchronized int size() {
+        return this.calculatedPaths.size();
+    }
+    
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+    
+    public synchronized long getHits() {
+        return this.hits;
+    }
+    
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+    
+    private void checkGraph(CompactDiGraph<PointOfInterest, Connection> graph) {
+        if (this.graph != graph) {
+            this.calculatedPaths.clear();
+            this.graph = graph;
+        }
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return "CalculatedPathCache{size=" + this.calculatedPaths.size() + "/" + this.maxSize
+                + ", hits=" + this.hits + ", misses=" + this.misses + "}";
+    }
+    
+    /**
+     * Key of a selection, where the order and repetitions of the points of
+     * interest do not matter
+     */
+    private static class Key {
+        
+        private final ICriteriaStrategy criteria;
+        private final boolean navigability;
+        private final int[] poiIds;
+        
+        private Key(ICriteriaStrategy criteria, boolean navigability, List<PointOfInterest> mustVisitPois) {
+            this.criteria = criteria;
+            this.navigability = navigability;
+            this.poiIds = mustVisitPois.stream().mapToInt(PointOfInterest::getPoiId).sorted().distinct().toArray();
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.navigability == other.navigability
+                    && this.criteria.equals(other.criteria)
+                    && Arrays.equals(this.poiIds, other.poiIds);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.criteria, this.navigability) * 31 + Arrays.hashCode(this.poiIds);
+        }
+        
+    }
+    
+}
@@ -14,19 +14,22 @@ public class CalculatedPathMemento {
     private final List<PointOfInterest> mementoPointsOfInterest;
     private final List<Connection> mementoConnections;
     private final List<PointOfInterest> mementoMustVisit;
+    private final ITourSolver mementoSolver;
     
     public CalculatedPathMemento(
             ICriteriaStrategy criteria,
             boolean navigability, int cost,
             List<PointOfInterest> pointsOfInterest,
             List<Connection> connections,
-            List<PointOfInterest> mustVisit) {
+            List<PointOfInterest> mustVisit,
+            ITourSolver solver) {
         this.mementoCriteria = criteria;
         this.mementoNavigability = navigability;
         this.mementoCost = cost;
         this.mementoPointsOfInterest = new ArrayList<>(pointsOfInterest);
         this.mementoConnections = new ArrayList<>(connections);
         this.mementoMustVisit = new ArrayList<>(mustVisit);
+        this.mementoSolver = solver;
     }
     
     public ICriteriaStrategy getMementoCriteria() {
@@ -53,4 +56,8 @@ public class CalculatedPathMemento {
         return this.mementoMustVisit;
     }
     
+    public ITourSolver getMementoSolver() {
+        return this.mementoSolver;
+    }
+    
 }
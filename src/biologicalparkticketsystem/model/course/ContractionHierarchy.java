@@ -0,0 +1,409 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.Arrays;
+
+/**
+ * Class to keep a contraction hierarchy of a compact digraph, used to answer
+ * minimum path queries with a search that only goes up the hierarchy.
+ *
+ * Vertices are contracted one at a time, least important first: every
+ * minimum path that went through the contracted vertex is kept by a shortcut
+ * arc between its neighbours, unless a witness search finds another path that
+ * is not more expensive. The order of contraction is the rank of each vertex,
+ * and a minimum path between any two vertices is then found by two searches
+ * that only follow arcs to higher ranks, forward from the origin and backward
+ * from the destination.
+ *
+ * Every arc is either an edge of the compact digraph or a shortcut made of
+ * two arcs, so paths are unpacked back to the edge ids. Arcs and the search
+ * graph are kept in primitive arrays, and instances are immutable once built.
+ */
+public class ContractionHierarchy {
+    
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+    
+    private final int numVertices;
+    private final boolean navigability;
+    private final int[] ranks;
+    private final int[] arcSources;
+    private final int[] arcTargets;
+    private final double[] arcWeights;
+    private final int[] arcEdges;
+    private final int[] arcFirsts;
+    private final int[] arcSeconds;
+    private final int[] arcLengths;
+    private final int[] upOffsets;
+    private final int[] upArcs;
+    private final int[] downOffsets;
+    private final int[] downArcs;
+    
+    /**
+     * Creates the hierarchy of a compact digraph
+     * @param graph compact digraph
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     */
+    public ContractionHierarchy(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability) {
+        this.numVertices = graph.numVertices();
+        this.navigability = navigability;
+        
+        Contraction contraction = new Contraction(graph, weights, navigability);
+        contraction.contractAll();
+        
+        this.ranks = contraction.ranks;
+        this.arcSources = Arrays.copyOf(contraction.sources, contraction.numArcs);
+        this.arcTargets = Arrays.copyOf(contraction.targets, contraction.numArcs);
+        this.arcWeights = Arrays.copyOf(contraction.weights, contraction.numArcs);
+        this.arcEdges = Arrays.copyOf(contraction.edges, contraction.numArcs);
+        this.arcFirsts = Arrays.copyOf(contraction.firsts, contraction.numArcs);
+        this.arcSeconds = Arrays.copyOf(contraction.seconds, contraction.numArcs);
+        this.arcLengths = Arrays.copyOf(contraction.lengths, contraction.numArcs);
+        
+        // Arcs to a higher rank are searched forward from their source, and
+        // arcs from a higher rank are searched backward from their target
+        this.upOffsets = new int[this.numVertices + 1];
+        this.downOffsets = new int[this.numVertices + 1];
+        for (int arc = 0; arc < this.arcSources.length; ++arc) {
+            if (isUpward(arc)) {
+                ++this.upOffsets[this.arcSources[arc] + 1];
+            } else {
+                ++this.downOffsets[this.arcTargets[arc] + 1];
+            }
+        }
+        for (int v = 0; v < this.numVertices; ++v) {
+            this.upOffsets[v + 1] += this.upOffsets[v];
+            this.downOffsets[v + 1] += this.downOffsets[v];
+        }
+        this.upArcs = new int[this.upOffsets[this.numVertices]];
+        this.downArcs = new int[this.downOffsets[this.numVertices]];
+        int[] nextUp = Arrays.copyOf(this.upOffsets, this.numVertices);
+        int[] nextDown = Arrays.copyOf(this.downOffsets, this.numVertices);
+        for (int arc = 0; arc < this.arcSources.length; ++arc) {
+            if (isUpward(arc)) {
+                this.upArcs[nextUp[this.arcSources[arc]]++] = arc;
+            } else {
+                this.downArcs[nextDown[this.arcTargets[arc]]++] = arc;
+            }
+        }
+    }
+    
+    private boolean isUpward(int arc) {
+        return this.ranks[this.arcSources[arc]] < this.ranks[this.arcTargets[arc]];
+    }
+    
+    public int getNumVertices() {
+        return this.numVertices;
+    }
+    
+    public boolean getNavigability() {
+        return this.navigability;
+    }
+    
+    /**
+     * Method to get the number of arcs, counting edges and shortcuts
+     * @return arc count
+     */
+    public int getNumArcs() {
+        return this.arcSources.length;
+    }
+    
+    int upStart(int vertex) {
+        return this.upOffsets[vertex];
+    }
+    
+    int upEnd(int vertex) {
+        return this.upOffsets[vertex + 1];
+    }
+    
+    int upArc(int index) {
+        return this.upArcs[index];
+    }
+    
+    int downStart(int vertex) {
+        return this.downOffsets[vertex];
+    }
+    
+    int downEnd(int vertex) {
+        return this.downOffsets[vertex + 1];
+    }
+    
+    int downArc(int index) {
+        return this.downArcs[index];
+    }
+    
+    int arcSource(int arc) {
+        return this.arcSources[arc];
+    }
+    
+    int arcTarget(int arc) {
+        return this.arcTargets[arc];
+    }
+    
+    double arcWeight(int arc) {
+        return this.arcWeights[arc];
+    }
+    
+    /**
+     * Method to get the number of edges an arc stands for
+     * @param arc arc id
+     * @return 1 for an edge, or the edges of both arcs of a shortcut
+     */
+    int arcLength(int arc) {
+        return this.arcLengths[arc];
+    }
+    
+    /**
+     * Method to write the edge ids an arc stands for, in path order
+     * @param arc arc id
+     * @param path array where the edge ids are written
+     * @param position position of the first edge id
+     * @return position following the last edge id written
+     */
+    int unpack(int arc, int[] path, int position) {
+        int[] pending = new int[this.arcLengths[arc]];
+        int size = 0;
+        pending[size++] = arc;
+        while (size > 0) {
+            int current = pending[--size];
+            if (this.arcEdges[current] != -1) {
+                path[position++] = this.arcEdges[current];
+            } else {
+                pending[size++] = this.arcSeconds[current];
+                pending[size++] = this.arcFirsts[current];
+            }
+        }
+        return position;
+    }
+    
+    /**
+     * State of the contraction, with the arcs in growing primitive arrays and
+     * the arcs of each vertex in growing lists of arc ids
+     */
+    private static class Contraction {
+        
+        private final int numVertices;
+        private int numArcs;
+        private int[] sources;
+        private int[] targets;
+        private double[] weights;
+        private int[] edges;
+        private int[] firsts;
+        private int[] seconds;
+        private int[] lengths;
+        private final int[][] outArcs;
+        private final int[] outSizes;
+        private final int[][] inArcs;
+        private final int[] inSizes;
+        
+        private final int[] ranks;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        
+        // Witness search state, reset through the stamps
+        private final double[] witnessCosts;
+        private final int[] witnessStamps;
+        private final IndexedMinHeap witnessHeap;
+        private int witnessStamp;
+        
+        private Contraction(CompactDiGraph<PointOfInterest, Connection> graph, double[] edgeWeights, boolean navigability) {
+            this.numVertices = graph.numVertices();
+            int capacity = Math.max(16, graph.numEdges() * 2);
+            this.numArcs = 0;
+            this.sources = new int[capacity];
+            this.targets = new int[capacity];
+            this.weights = new double[capacity];
+            this.edges = new int[capacity];
+            this.firsts = new int[capacity];
+            this.seconds = new int[capacity];
+            this.lengths = new int[capacity];
+            this.outArcs = new int[this.numVertices][];
+            this.outSizes = new int[this.numVertices];
+            this.inArcs = new int[this.numVertices][];
+            this.inSizes = new int[this.numVertices];
+            for (int v = 0; v < this.numVertices; ++v) {
+                this.outArcs[v] = new int[4];
+                this.inArcs[v] = new int[4];
+            }
+            
+            this.ranks = new int[this.numVertices];
+            this.contracted = new boolean[this.numVertices];
+            this.contractedNeighbours = new int[this.numVertices];
+            
+            this.witnessCosts = new double[this.numVertices];
+            this.witnessStamps = new int[this.numVertices];
+            this.witnessHeap = new IndexedMinHeap(this.numVertices);
+            this.witnessStamp = 0;
+            
+            for (int edge = 0; edge < graph.numEdges(); ++edge) {
+                if ((navigability == false || graph.isNavigable(edge)) && graph.source(edge) != graph.target(edge)) {
+                    addArc(graph.source(edge), graph.target(edge), edgeWeights[edge], edge, -1, -1);
+                }
+            }
+        }
+        
+        private void addArc(int source, int target, double weight, int edge, int first, int second) {
+            if (this.numArcs == this.sources.length) {
+                int capacity = this.numArcs * 2;
+                this.sources = Arrays.copyOf(this.sources, capacity);
+                this.targets = Arrays.copyOf(this.targets, capacity);
+                this.weights = Arrays.copyOf(this.weights, capacity);
+                this.edges = Arrays.copyOf(this.edges, capacity);
+                this.firsts = Arrays.copyOf(this.firsts, capacity);
+                this.seconds = Arrays.copyOf(this.seconds, capacity);
+                this.lengths = Arrays.copyOf(this.lengths, capacity);
+            }
+            int arc = this.numArcs++;
+            this.sources[arc] = source;
+            this.targets[arc] = target;
+            this.weights[arc] = weight;
+            this.edges[arc] = edge;
+            this.firsts[arc] = first;
+            this.seconds[arc] = second;
+            this.lengths[arc] = edge != -1 ? 1 : this.lengths[first] + this.lengths[second];
+            
+            if (this.outSizes[source] == this.outArcs[source].length) {
+                this.outArcs[source] = Arrays.copyOf(this.outArcs[source], this.outSizes[source] * 2);
+            }
+            this.outArcs[source][this.outSizes[source]++] = arc;
+            if (this.inSizes[target] == this.inArcs[target].length) {
+                this.inArcs[target] = Arrays.copyOf(this.inArcs[target], this.inSizes[target] * 2);
+            }
+            this.inArcs[target][this.inSizes[target]++] = arc;
+        }
+        
+        /**
+         * Method to contract every vertex, always picking the one with the
+         * lowest priority. Priorities change as neighbours are contracted, so
+         * they are calculated again when a vertex reaches the top of the heap.
+         */
+        private void contractAll() {
+            IndexedMinHeap heap = new IndexedMinHeap(this.numVertices);
+            for (int v = 0; v < this.numVertices; ++v) {
+                heap.push(v, priority(v));
+            }
+            
+            int rank = 0;
+            while (!heap.isEmpty()) {
+                int vertex = heap.poll();
+                double priority = priority(vertex);
+                if (!heap.isEmpty() && priority > heap.peekPriority()) {
+                    heap.push(vertex, priority);
+                    continue;
+                }
+                
+                contract(vertex, true);
+                this.contracted[vertex] = true;
+                this.ranks[vertex] = rank++;
+                for (int i = 0; i < this.outSizes[vertex]; ++i) {
+                    ++this.contractedNeighbours[this.targets[this.outArcs[vertex][i]]];
+                }
+                for (int i = 0; i < this.inSizes[vertex]; ++i) {
+                    ++this.contractedNeighbours[this.sources[this.inArcs[vertex][i]]];
+                }
+            }
+        }
+        
+        /**
+         * Method to get the priority of a vertex, lower for vertices that add
+         * fewer shortcuts than the arcs they remove and that have fewer
+         * contracted neighbours, so the hierarchy grows evenly
+         */
+        private double priority(int vertex) {
+            int removedArcs = 0;
+            for (int i = 0; i < this.outSizes[vertex]; ++i) {
+                if (!this.contracted[this.targets[this.outArcs[vertex][i]]]) {
+                    ++removedArcs;
+                }
+            }
+            for (int i = 0; i < this.inSizes[vertex]; ++i) {
+                if (!this.contracted[this.sources[this.inArcs[vertex][i]]]) {
+                    ++removedArcs;
+                }
+            }
+            return contract(vertex, false) - removedArcs + this.contractedNeighbours[vertex];
+        }
+        
+        /**
+         * Method to find the shortcuts needed to contract a vertex
+         * @param vertex vertex to contract
+         * @param addShortcuts true to add the shortcuts, false to only count them
+         * @return number of shortcuts
+         */
+        private int contract(int vertex, boolean addShortcuts) {
+            int shortcuts = 0;
+            int inSize = this.inSizes[vertex];
+            int outSize = this.outSizes[vertex];
+            for (int i = 0; i < inSize; ++i) {
+                int inArc = this.inArcs[vertex][i];
+                int source = this.sources[inArc];
+                if (this.contracted[source]) {
+                    continue;
+                }
+                
+                double maxCost = 0.0;
+                for (int j = 0; j < outSize; ++j) {
+                    int outArc = this.outArcs[vertex][j];
+                    if (!this.contracted[this.targets[outArc]] && this.targets[outArc] != source) {
+                        maxCost = Math.max(maxCost, this.weights[inArc] + this.weights[outArc]);
+                    }
+                }
+                witnessSearch(source, vertex, maxCost);
+                
+                for (int j = 0; j < outSize; ++j) {
+                    int outArc = this.outArcs[vertex][j];
+                    int target = this.targets[outArc];
+                    if (this.contracted[target] || target == source) {
+                        continue;
+                    }
+                    double cost = this.weights[inArc] + this.weights[outArc];
+                    if (this.witnessStamps[target] != this.witnessStamp || this.witnessCosts[target] > cost) {
+                        ++shortcuts;
+                        if (addShortcuts) {
+                            addArc(source, target, cost, -1, inArc, outArc);
+                            // The shortcut is a witness for the following arcs to the same target
+                            this.witnessStamps[target] = this.witnessStamp;
+                            this.witnessCosts[target] = cost;
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+        
+        /**
+         * Method to find the costs from a vertex without going through the
+         * vertex being contracted, settling a limited number of vertices
+         */
+        private void witnessSearch(int origin, int excluded, double maxCost) {
+            ++this.witnessStamp;
+            this.witnessHeap.clear();
+            this.witnessStamps[origin] = this.witnessStamp;
+            this.witnessCosts[origin] = 0.0;
+            this.witnessHeap.push(origin, 0.0);
+            
+            int settled = 0;
+            while (!this.witnessHeap.isEmpty() && settled < WITNESS_SETTLE_LIMIT && this.witnessHeap.peekPriority() <= maxCost) {
+                int lowerCostVertex = this.witnessHeap.poll();
+                ++settled;
+                for (int i = 0; i < this.outSizes[lowerCostVertex]; ++i) {
+                    int arc = this.outArcs[lowerCostVertex][i];
+                    int opposite = this.targets[arc];
+                    if (this.contracted[opposite] || opposite == excluded) {
+                        continue;
+                    }
+                    double cost = this.witnessCosts[lowerCostVertex] + this.weights[arc];
+                    if (this.witnessStamps[opposite] != this.witnessStamp || cost < this.witnessCosts[opposite]) {
+                        this.witnessStamps[opposite] = this.witnessStamp;
+                        this.witnessCosts[opposite] = cost;
+                        this.witnessHeap.push(opposite, cost);
+                    }
+                }
+            }
+        }
+        
+    }
+    
+}
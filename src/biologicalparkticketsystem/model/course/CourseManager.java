@@ -1,55 +1,147 @@
 package biologicalparkticketsystem.model.course;
 
+import biologicalparkticketsystem.ConfigManager;
 import biologicalparkticketsystem.LoggerManager;
-import digraph.IEdge;
-import digraph.IVertex;
+import digraph.CompactDiGraph;
+import digraph.InvalidVertexException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 /**
- * Class responsible to manage course calculations
+ * Class responsible to manage course calculations. Courses can also be
+ * calculated in a background thread, so the calculated path and its historic
+ * are only changed while holding the manager lock
  */
 public class CourseManager {
     
     private final MapManager mapManager;
     private CalculatedPathCareTaker calculatedPathCareTaker;
     private CalculatedPath calculatedPath;
+    private final ITourSolver exactTourSolver;
+    private final TourSolverHeuristic heuristicTourSolver;
+    private final TourSolverBranchAndBound branchAndBoundTourSolver;
+    private final TourSolverPareto paretoTourSolver;
+    private final TourSolverAnytime anytimeTourSolver;
+    private final int exactMaxPois;
+    private final int branchAndBoundMaxPois;
+    private final int landmarksMaxPois;
+    private final int paretoMaxPois;
+    private final CalculatedPathCache calculatedPathCache;
+    private final int dijkstraMaxOrigins;
+    private CompletableFuture<CalculatedPath> anytimeCalculation;
+    private PathStrategyDijkstra lastDijkstraPaths;
+    private ICriteriaStrategy lastDijkstraCriteria;
+    private boolean lastDijkstraNavigability;
+    private final ExecutorService calculationExecutor;
     
     public CourseManager(MapManager mapManager) {
+        ConfigManager config = ConfigManager.getInstance();
+        
         this.mapManager = mapManager;
+        this.exactTourSolver = new TourSolverHeldKarp();
+        this.heuristicTourSolver = new TourSolverHeuristic(
+                Long.parseLong(config.getProperties().getProperty("course.heuristic.time_budget", "200"))
+        );
+        this.exactMaxPois = Math.min(
+                Integer.parseInt(config.getProperties().getProperty("course.exact.max_pois", "15")),
+                TourSolverHeldKarp.MAX_POINTS
+        );
+        this.branchAndBoundTourSolver = new TourSolverBranchAndBound(
+                this.heuristicTourSolver,
+                Long.parseLong(config.getProperties().getProperty("course.branch_and_bound.time_budget", "500"))
+        );
+        this.branchAndBoundMaxPois = Integer.parseInt(config.getProperties().getProperty("course.branch_and_bound.max_pois", "25"));
+        this.landmarksMaxPois = Integer.parseInt(config.getProperties().getProperty("course.landmarks.max_pois", "2"));
+        this.paretoTourSolver = new TourSolverPareto();
+        this.anytimeTourSolver = new TourSolverAnytime(
+                this.exactTourSolver,
+                this.exactMaxPois,
+                Long.parseLong(config.getProperties().getProperty("course.anytime.deadline", "200"))
+        );
+        this.paretoMaxPois = Math.min(
+                Integer.parseInt(config.getProperties().getProperty("course.pareto.max_pois", "8")),
+                TourSolverPareto.MAX_POINTS
+        );
+        this.calculatedPathCache = new CalculatedPathCache(
+                Integer.parseInt(config.getProperties().getProperty("course.cache.size", "64"))
+        );
+        this.dijkstraMaxOrigins = Integer.parseInt(config.getProperties().getProperty("course.dijkstra.max_origins", "32"));
+        this.anytimeCalculation = null;
+        this.lastDijkstraPaths = null;
+        this.calculationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "course-calculation");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.calculatedPathCareTaker = new CalculatedPathCareTaker();
         this.calculatedPath = null;
     }
     
-    public CalculatedPath getCalculatedPath() {
+    public synchronized CalculatedPath getCalculatedPath() {
         return this.calculatedPath;
     }
     
+    /**
+     * Method to get how long anytime calculations keep improving their path
+     * @return deadline in milliseconds, 0 if they are disabled
+     */
+    public long getAnytimeDeadlineMillis() {
+        return this.anytimeTourSolver.getDeadlineMillis();
+    }
+    
+    /**
+     * Method to get the cache of calculated paths, with its hit and miss
+     * counters
+     * @return calculated path cache instance
+     */
+    public CalculatedPathCache getCalculatedPathCache() {
+        return this.calculatedPathCache;
+    }
+    
     /**
      * Method to undo last calculated course
      */
-    public void undoCalculatedCourse() {
-        this.calculatedPathCareTaker.restoreState(this.calculatedPath);
+    public synchronized void undoCalculatedCourse() {
+        if (this.calculatedPathCareTaker.countStates() > 0) {
+            // Calculated paths can be shared by the cache, so restore a new one
+            CalculatedPath restoredPath = new CalculatedPath();
+            this.calculatedPathCareTaker.restoreState(restoredPath);
+            this.calculatedPath = restoredPath;
+        }
     }
     
     /**
      * Method to clear calculated courses historic
      */
-    public void clearCalculatedCourses() {
+    public synchronized void clearCalculatedCourses() {
         this.calculatedPathCareTaker.clearStates();
         this.calculatedPath = null;
     }
     
+    /**
+     * Method to clear the calculated path, keeping the historic
+     */
+    public synchronized void clearCalculatedPath() {
+        this.calculatedPath = null;
+    }
+    
     /**
      * Method to return the amount of calculated courses in the historic
      * @return amount of calculated courses
      */
-    public int countCalculatedCourses() {
+    public synchronized int countCalculatedCourses() {
         return this.calculatedPathCareTaker.countStates();
     }
     
@@ -63,6 +155,22 @@ public class CourseManager {
     public void minimumCriteriaPath(ICriteriaStrategy criteria,
             boolean navigability,
             List<PointOfInterest> mustVisitPois) throws CourseManagerException {
+        minimumCriteriaPath(criteria, navigability, mustVisitPois, PathSearch.AUTOMATIC);
+    }
+    
+    /**
+     * Calculates the minimum cost path based on a criteria for the selected
+     * pois, choosing how the paths between them are searched
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @param search search used for the paths between the pois
+     * @throws biologicalparkticketsystem.model.course.CourseManagerException
+     */
+    public synchronized void minimumCriteriaPath(ICriteriaStrategy criteria,
+            boolean navigability,
+            List<PointOfInterest> mustVisitPois,
+            PathSearch search) throws CourseManagerException {
         
         if (mustVisitPois.isEmpty()) {
             throw new CourseManagerException("To generate a path a minimum of one point of interest must be selected.");
@@ -71,177 +179,755 @@ public class CourseManager {
         CalculatedPath oldCalculatedPath = this.calculatedPath;
         
         try {
-            this.calculatedPath = new CalculatedPath();
-
-            IVertex<PointOfInterest> startPoi = this.mapManager.getStartVertex();
-
-            Map<IVertex<PointOfInterest>, CalculatedDijkstra> calculatedDijkstras = new HashMap<>();
-
-            dijkstraAlgorithm(criteria, navigability, startPoi, calculatedDijkstras);
-            for (PointOfInterest poi : mustVisitPois) {
-                IVertex<PointOfInterest> vertexPoi = this.mapManager.checkPointOfInterest(poi);
-                dijkstraAlgorithm(criteria, navigability, vertexPoi, calculatedDijkstras);
+            CompactDiGraph<PointOfInterest, Connection> graph = this.mapManager.getCompactDiGraph();
+            
+            this.calculatedPath = this.calculatedPathCache.get(graph, criteria, navigability, mustVisitPois);
+            if (this.calculatedPath == null) {
+                this.calculatedPath = calculatePath(graph, criteria, navigability, mustVisitPois, search, progress -> { });
+                this.calculatedPathCache.put(graph, this.calculatedPath);
             }
-
-            heapsAlgorithm(mustVisitPois.size(), mustVisitPois, startPoi, calculatedDijkstras);
-
-            this.calculatedPath.setCriteria(criteria);
-            this.calculatedPath.setNavigability(navigability);
-            this.calculatedPath.setMustVisit(mustVisitPois);
             
             if (oldCalculatedPath != null) {
                 this.calculatedPathCareTaker.saveState(oldCalculatedPath);
             }
             
             LoggerManager.getInstance().log(LoggerManager.Component.COURSE_CALCULATIONS);
-        } catch (MapManagerException | CourseManagerException ex) {
+        } catch (MapManagerException | CourseManagerException | InvalidVertexException ex) {
             LoggerManager.getInstance().log(ex);
             this.calculatedPath = oldCalculatedPath;
             throw new CourseManagerException(ex.getMessage());
         }
     }
     
-    private void heapsAlgorithm(int n, List<PointOfInterest> mustVisitPois,
-            IVertex<PointOfInterest> startPoi,
-            Map<IVertex<PointOfInterest>, CalculatedDijkstra> calculatedDijkstras) throws MapManagerException, CourseManagerException {
-        if (n == 1) {
-            CalculatedPath tempCalculatedPath = calculateMustVisitPOIs(startPoi, mustVisitPois, calculatedDijkstras);
-            if (tempCalculatedPath.getCost() <= this.calculatedPath.getCost()) {
-                this.calculatedPath = tempCalculatedPath;
+    /**
+     * Calculates the minimum cost path based on a criteria for the selected
+     * pois in anytime mode. A nearest neighbour path is the calculated path
+     * when this method returns, and it keeps being improved in a background
+     * thread until the configured deadline. Each improved path replaces the
+     * calculated path, without adding to the historic, as long as the path
+     * it improves was not replaced by another calculation or undone.
+     * Only the path reached at the deadline is cached, not the ones before it.
+     * A newer calculation in the background stops the improvements, so it
+     * does not wait for the deadline.
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @param improvement receives every improved path, from the calculation
+     * thread holding the lock of this manager, so it must not wait for
+     * another thread
+     * @return future completed with the last improved path at the deadline,
+     * or exceptionally with a CourseManagerException, cancelled if the
+     * improvements stopped before, and cancelling it stops them
+     * @throws biologicalparkticketsystem.model.course.CourseManagerException
+     */
+    public synchronized CompletableFuture<CalculatedPath> minimumCriteriaPath(ICriteriaStrategy criteria,
+            boolean navigability,
+            List<PointOfInterest> mustVisitPois,
+            Consumer<CalculatedPath> improvement) throws CourseManagerException {
+        
+        if (mustVisitPois.isEmpty()) {
+            throw new CourseManagerException("To generate a path a minimum of one point of interest must be selected.");
+        }
+        
+        cancelAnytimeCalculation();
+        long deadline = System.nanoTime() + this.anytimeTourSolver.getDeadlineMillis() * 1000000L;
+        List<PointOfInterest> selectedPois = new ArrayList<>(mustVisitPois);
+        
+        try {
+            CompactDiGraph<PointOfInterest, Connection> graph = this.mapManager.getCompactDiGraph();
+            
+            CalculatedPath cachedPath = this.calculatedPathCache.get(graph, criteria, navigability, selectedPois);
+            if (cachedPath != null) {
+                commitCalculatedPath(cachedPath);
+                LoggerManager.getInstance().log(LoggerManager.Component.COURSE_CALCULATIONS);
+                return CompletableFuture.completedFuture(cachedPath);
             }
-        } else {
-            for (int i = 0; i < n - 1; ++i) {
-                heapsAlgorithm(n - 1, mustVisitPois, startPoi, calculatedDijkstras);
-                if ((n & 1) == 0) { // Check if n is even or odd
-                    Collections.swap(mustVisitPois, i, n-1);
-                } else {
-                    Collections.swap(mustVisitPois, 0, n-1);
+            
+            IPathStrategy paths = getPathStrategy(graph, criteria, navigability, selectedPois.size(), PathSearch.AUTOMATIC);
+            int[] points = getPoints(graph, selectedPois);
+            double[][] costs = getCostMatrix(points, paths);
+            
+            int[] order = this.anytimeTourSolver.firstOrder(costs);
+            CalculatedPath firstPath = getCalculatedPath(graph, criteria, navigability, selectedPois, points, paths, order, this.anytimeTourSolver);
+            commitCalculatedPath(firstPath);
+            
+            LoggerManager.getInstance().log(LoggerManager.Component.COURSE_CALCULATIONS);
+            
+            CompletableFuture<CalculatedPath> future = newCalculationFuture();
+            Future<?> task = this.calculationExecutor.submit(() -> {
+                CalculatedPath[] lastPath = { firstPath };
+                try {
+                    this.anytimeTourSolver.improve(costs, order, deadline, improvedOrder -> {
+                        CalculatedPath improvedPath;
+                        try {
+                            improvedPath = getCalculatedPath(graph, criteria, navigability, selectedPois, points, paths, improvedOrder, this.anytimeTourSolver);
+                        } catch (CourseManagerException ex) {
+                            LoggerManager.getInstance().log(ex);
+                            future.completeExceptionally(ex);
+                            throw new CancellationException(ex.getMessage());
+                        }
+                        // Cancelling takes the same lock, so a cancelled calculation cannot publish its path
+                        synchronized (this) {
+                            if (future.isDone() || this.calculatedPath != lastPath[0]) {
+                                throw new CancellationException("The course calculation was replaced.");
+                            }
+                            this.calculatedPath = improvedPath;
+                            lastPath[0] = improvedPath;
+                            improvement.accept(improvedPath);
+                        }
+                    });
+                    synchronized (this) {
+                        if (!future.isDone() && !Thread.currentThread().isInterrupted()) {
+                            this.calculatedPathCache.put(graph, lastPath[0]);
+                            future.complete(lastPath[0]);
+                        } else {
+                            future.cancel(false);
+                        }
+                    }
+                } catch (CancellationException ex) {
+                    future.cancel(false);
                 }
-            }
-            heapsAlgorithm(n - 1, mustVisitPois, startPoi, calculatedDijkstras);
+            });
+            future.whenComplete((path, ex) -> {
+                if (future.isCancelled()) {
+                    task.cancel(true);
+                }
+            });
+            this.anytimeCalculation = future;
+            
+            return future;
+        } catch (MapManagerException | CourseManagerException | InvalidVertexException ex) {
+            LoggerManager.getInstance().log(ex);
+            throw new CourseManagerException(ex.getMessage());
         }
     }
     
-    private CalculatedPath calculateMustVisitPOIs(IVertex<PointOfInterest> startPoi,
+    /**
+     * Calculates the minimum cost path based on a criteria for the selected
+     * pois in a background thread, one calculation at a time. Cancelling the
+     * returned future interrupts the calculation, and a cancelled calculation
+     * never changes the calculated path.
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @param progress receives the fraction of the calculation already done,
+     * from the calculation thread
+     * @return future completed with the calculated path, or exceptionally with
+     * a CourseManagerException
+     */
+    public CompletableFuture<CalculatedPath> minimumCriteriaPathAsync(ICriteriaStrategy criteria,
+            boolean navigability,
             List<PointOfInterest> mustVisitPois,
-            Map<IVertex<PointOfInterest>, CalculatedDijkstra> calculatedDijkstras) throws MapManagerException, CourseManagerException {
-        
-        CalculatedPath tempCalculatedPath = new CalculatedPath();
-        int cost = 0;
+            DoubleConsumer progress) {
         
-        IVertex<PointOfInterest> origin = startPoi;
-        IVertex<PointOfInterest> destination;
-        for (PointOfInterest poi : mustVisitPois) {
-            destination = this.mapManager.checkPointOfInterest(poi);
-            cost += getMinimumPathFromTwoPOIs(origin, destination, calculatedDijkstras, tempCalculatedPath.getPointsOfInterest(), tempCalculatedPath.getConnections());
-            origin = destination;
+        CompletableFuture<CalculatedPath> future = newCalculationFuture();
+        if (mustVisitPois.isEmpty()) {
+            future.completeExceptionally(new CourseManagerException("To generate a path a minimum of one point of interest must be selected."));
+            return future;
         }
-        destination = startPoi;
-        cost += getMinimumPathFromTwoPOIs(origin, destination, calculatedDijkstras, tempCalculatedPath.getPointsOfInterest(), tempCalculatedPath.getConnections());
         
-        tempCalculatedPath.getPointsOfInterest().add(0, startPoi.element());
-        tempCalculatedPath.setCost(cost);
+        // The selection may change while the path is calculated
+        List<PointOfInterest> selectedPois = new ArrayList<>(mustVisitPois);
         
-        return tempCalculatedPath;
+        cancelAnytimeCalculation();
+        Future<?> task = this.calculationExecutor.submit(() -> {
+            try {
+                CompactDiGraph<PointOfInterest, Connection> graph = this.mapManager.getCompactDiGraph();
+                
+                CalculatedPath path = this.calculatedPathCache.get(graph, criteria, navigability, selectedPois);
+                if (path == null) {
+                    path = calculatePath(graph, criteria, navigability, selectedPois, PathSearch.AUTOMATIC, progress);
+                    this.calculatedPathCache.put(graph, path);
+                }
+                
+                // Cancelling takes the same lock, so a cancelled calculation cannot commit its path
+                synchronized (this) {
+                    if (!future.isDone()) {
+                        commitCalculatedPath(path);
+                        LoggerManager.getInstance().log(LoggerManager.Component.COURSE_CALCULATIONS);
+                        future.complete(path);
+                    }
+                }
+            } catch (CancellationException ex) {
+                future.cancel(false);
+            } catch (MapManagerException | CourseManagerException | InvalidVertexException ex) {
+                LoggerManager.getInstance().log(ex);
+                future.completeExceptionally(new CourseManagerException(ex.getMessage()));
+            }
+        });
+        future.whenComplete((path, ex) -> {
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
         
+        return future;
     }
     
-    private int getMinimumPathFromTwoPOIs(IVertex<PointOfInterest> origin,
-            IVertex<PointOfInterest> destination,
-            Map<IVertex<PointOfInterest>, CalculatedDijkstra> calculatedDijkstras,
-            List<PointOfInterest> pois,
-            List<Connection> connections) throws CourseManagerException {
+    /**
+     * Updates the calculated path after one point of interest was added to or
+     * removed from the selection. Instead of solving the order again, the
+     * order of the current path is repaired, inserting the added point where
+     * it is cheapest or leaving the removed one out, and then improved with
+     * local moves, which is much faster but may not find the minimum cost
+     * path. A repaired path is not saved in the historic, as it only follows
+     * the selection. When the selection changed in more than one point, or the
+     * criteria or navigability changed, the path is not changed and must be
+     * fully calculated instead.
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @return false if the path must be fully calculated instead
+     * @throws biologicalparkticketsystem.model.course.CourseManagerException
+     */
+    public synchronized boolean updateMinimumCriteriaPath(ICriteriaStrategy criteria,
+            boolean navigability,
+            List<PointOfInterest> mustVisitPois) throws CourseManagerException {
         
-        List<PointOfInterest> tempPois = new ArrayList<>();
-        List<Connection> tempConnections = new ArrayList<>();
+        if (this.calculatedPath == null) {
+            throw new CourseManagerException("There is no calculated path to update.");
+        }
+        if (mustVisitPois.isEmpty()) {
+            throw new CourseManagerException("To generate a path a minimum of one point of interest must be selected.");
+        }
         
-        CalculatedDijkstra calculatedDijkstra = calculatedDijkstras.get(origin);
+        CalculatedPath oldCalculatedPath = this.calculatedPath;
+        if (!oldCalculatedPath.getCriteria().equals(criteria) || oldCalculatedPath.getNavigability() != navigability) {
+            return false;
+        }
         
-        int cost = (int) Math.round(calculatedDijkstra.getCosts().get(destination));
+        Set<PointOfInterest> added = new HashSet<>(mustVisitPois);
+        added.removeAll(oldCalculatedPath.getMustVisit());
+        Set<PointOfInterest> removed = new HashSet<>(oldCalculatedPath.getMustVisit());
+        removed.removeAll(mustVisitPois);
+        if (added.size() + removed.size() == 0) {
+            return true;
+        }
+        if (added.size() + removed.size() > 1) {
+            return false;
+        }
         
-        while (destination != origin) {
-            tempPois.add(0, destination.element());
-            if (!calculatedDijkstra.getEdges().containsKey(destination) || calculatedDijkstra.getEdges().get(destination) == null) {
+        try {
+            CompactDiGraph<PointOfInterest, Connection> graph = this.mapManager.getCompactDiGraph();
+            
+            // Repaired paths are not cached, so a full calculation of the same selection is still done when asked
+            this.calculatedPath = this.calculatedPathCache.get(graph, criteria, navigability, mustVisitPois);
+            if (this.calculatedPath == null) {
+                this.calculatedPath = repairPath(graph, oldCalculatedPath, mustVisitPois);
+            }
+            
+            LoggerManager.getInstance().log(LoggerManager.Component.COURSE_CALCULATIONS);
+            return true;
+        } catch (MapManagerException | CourseManagerException | InvalidVertexException ex) {
+            LoggerManager.getInstance().log(ex);
+            this.calculatedPath = oldCalculatedPath;
+            throw new CourseManagerException(ex.getMessage());
+        }
+    }
+    
+    /**
+     * Calculates the courses for the selected pois that trade cost for
+     * distance, none of them beaten by another in both, in a single search.
+     * Selections larger than the configured limit only get the minimum cost
+     * and the minimum distance courses, calculated as minimumCriteriaPath does.
+     * The calculated path is not changed.
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @return calculated pareto paths
+     * @throws biologicalparkticketsystem.model.course.CourseManagerException
+     */
+    public CalculatedParetoPaths minimumParetoPaths(boolean navigability,
+            List<PointOfInterest> mustVisitPois) throws CourseManagerException {
+        
+        if (mustVisitPois.isEmpty()) {
+            throw new CourseManagerException("To generate a path a minimum of one point of interest must be selected.");
+        }
+        
+        try {
+            CompactDiGraph<PointOfInterest, Connection> graph = this.mapManager.getCompactDiGraph();
+            
+            CalculatedParetoPaths paretoPaths;
+            if (mustVisitPois.size() <= this.paretoMaxPois) {
+                paretoPaths = calculateParetoPaths(graph, navigability, mustVisitPois);
+            } else {
+                List<ParetoPath> paths = new ArrayList<>();
+                for (ICriteriaStrategy criteria : new ICriteriaStrategy[] { new CriteriaStrategyCost(), new CriteriaStrategyDistance() }) {
+                    paths.add(getParetoPath(calculatePath(graph, criteria, navigability, mustVisitPois, PathSearch.AUTOMATIC, progress -> { })));
+                }
+                if (paths.get(0).dominates(paths.get(1))) {
+                    paths.remove(1);
+                } else if (paths.get(1).dominates(paths.get(0))) {
+                    paths.remove(0);
+                }
+                paretoPaths = new CalculatedParetoPaths(paths);
+            }
+            
+            LoggerManager.getInstance().log(LoggerManager.Component.COURSE_CALCULATIONS);
+            
+            return paretoPaths;
+        } catch (MapManagerException | CourseManagerException | InvalidVertexException ex) {
+            LoggerManager.getInstance().log(ex);
+            throw new CourseManagerException(ex.getMessage());
+        }
+    }
+    
+    /**
+     * Method to make one of the pareto paths the calculated path, keeping the
+     * previous one in the historic
+     * @param paretoPath pareto path chosen
+     * @param criteria criteria strategy used to measure the path cost
+     */
+    public synchronized void chooseParetoPath(ParetoPath paretoPath, ICriteriaStrategy criteria) {
+        commitCalculatedPath(paretoPath.getCalculatedPath(criteria));
+    }
+    
+    /**
+     * Method to make a path the calculated path, keeping the previous one in
+     * the historic
+     * @param path new calculated path
+     */
+    private synchronized void commitCalculatedPath(CalculatedPath path) {
+        if (this.calculatedPath != null) {
+            this.calculatedPathCareTaker.saveState(this.calculatedPath);
+        }
+        this.calculatedPath = path;
+    }
+    
+    /**
+     * Method to stop improving the path of the last anytime calculation, so
+     * the calculation thread is free for a newer one
+     */
+    private synchronized void cancelAnytimeCalculation() {
+        if (this.anytimeCalculation != null) {
+            this.anytimeCalculation.cancel(true);
+            this.anytimeCalculation = null;
+        }
+    }
+    
+    /**
+     * Method to create the future of a background calculation, which is
+     * cancelled holding the lock of this manager. A calculation that checks
+     * the future under the same lock before changing the calculated path
+     * never changes it once the future was cancelled.
+     * @return future of the calculation
+     */
+    private CompletableFuture<CalculatedPath> newCalculationFuture() {
+        return new CompletableFuture<CalculatedPath>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                synchronized (CourseManager.this) {
+                    return super.cancel(mayInterruptIfRunning);
+                }
+            }
+        };
+    }
+    
+    /**
+     * Calculates the cost of the minimum path between two pois, for lookups
+     * that do not need a whole course
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param origin poi where the path starts
+     * @param destination poi where the path ends
+     * @param search search used for the path
+     * @return path cost
+     * @throws biologicalparkticketsystem.model.course.CourseManagerException
+     */
+    public double minimumCriteriaCost(ICriteriaStrategy criteria,
+            boolean navigability,
+            PointOfInterest origin,
+            PointOfInterest destination,
+            PathSearch search) throws CourseManagerException {
+        
+        try {
+            CompactDiGraph<PointOfInterest, Connection> graph = this.mapManager.getCompactDiGraph();
+            IPathStrategy paths = getPathStrategy(graph, criteria, navigability, 1, search);
+            
+            double cost = paths.getCost(
+                    graph.idOf(this.mapManager.checkPointOfInterest(origin)),
+                    graph.idOf(this.mapManager.checkPointOfInterest(destination))
+            );
+            if (cost == Double.POSITIVE_INFINITY) {
                 throw new CourseManagerException("It is not possible to calculate a path for the selected point(s) of interest.");
             }
-            tempConnections.add(0, calculatedDijkstra.getEdges().get(destination).element());
-            destination = calculatedDijkstra.getPredecessors().get(destination);
+            return cost;
+        } catch (MapManagerException | CourseManagerException | InvalidVertexException ex) {
+            LoggerManager.getInstance().log(ex);
+            throw new CourseManagerException(ex.getMessage());
         }
+    }
+    
+    /**
+     * Method to calculate the minimum cost path for the selected pois
+     * @param graph compact digraph of the map
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @param search search used for the paths between the pois
+     * @param progress receives the fraction of the tour search already done
+     * @return immutable calculated path
+     * @throws MapManagerException
+     * @throws CourseManagerException
+     * @throws CancellationException if the thread was interrupted
+     */
+    private CalculatedPath calculatePath(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
+            boolean navigability,
+            List<PointOfInterest> mustVisitPois,
+            PathSearch search,
+            DoubleConsumer progress) throws MapManagerException, CourseManagerException {
         
-        pois.addAll(tempPois);
-        connections.addAll(tempConnections);
+        IPathStrategy paths = getPathStrategy(graph, criteria, navigability, mustVisitPois.size(), search);
+        int[] points = getPoints(graph, mustVisitPois);
         
-        return cost;
+        ITourSolver solver = getTourSolver(mustVisitPois.size());
+        double[][] costs = getCostMatrix(points, paths);
+        int[] order;
+        if (solver == this.branchAndBoundTourSolver) {
+            TourSolverBranchAndBound.Result result = this.branchAndBoundTourSolver.search(costs, progress);
+            order = result.getOrder();
+            if (!result.isProved()) {
+                solver = this.branchAndBoundTourSolver.getBestEffortSolver();
+            }
+        } else {
+            order = solver.solve(costs, progress);
+        }
+        progress.accept(1.0);
         
+        return getCalculatedPath(graph, criteria, navigability, mustVisitPois, points, paths, order, solver);
     }
     
-    private void dijkstraAlgorithm(ICriteriaStrategy criteria,
+    /**
+     * Method to build the calculated path that visits the points in an order
+     * @param graph compact digraph of the map
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @param points vertex ids of the start and the pois
+     * @param paths path strategy used to find the paths between the points
+     * @param order points 1 to points.length - 1 in visiting order
+     * @param solver tour solver that found the order
+     * @return immutable calculated path
+     * @throws CourseManagerException
+     */
+    private CalculatedPath getCalculatedPath(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
             boolean navigability,
-            IVertex<PointOfInterest> orig,
-            Map<IVertex<PointOfInterest>, CalculatedDijkstra> calculatedDijkstras) {
-        
-        Map<IVertex<PointOfInterest>, Double> costs = new HashMap<>();
-        Map<IVertex<PointOfInterest>, IVertex<PointOfInterest>> predecessors = new HashMap<>();
-        Map<IVertex<PointOfInterest>, IEdge<Connection, PointOfInterest>> edges = new HashMap<>();
-        
-        Set<IVertex<PointOfInterest>> visited = new HashSet<>();
-        Set<IVertex<PointOfInterest>> unvisited = new HashSet<>();
-        
-        for (IVertex<PointOfInterest> vertex : this.mapManager.getDiGraph().vertices()) {
-            costs.put(vertex, Double.MAX_VALUE);
-            predecessors.put(vertex, null);
-            edges.put(vertex, null);
-        }
-        costs.put(orig, 0.0);
-        unvisited.add(orig);
-        
-        while (!unvisited.isEmpty()) {
-            IVertex<PointOfInterest> lowerCostVertex = findLowerCostVertex(unvisited, costs);
-            unvisited.remove(lowerCostVertex);
-            for (IEdge<Connection, PointOfInterest> edge : this.mapManager.getDiGraph().accedentEdges(lowerCostVertex)) {
-                if (navigability == false || (navigability == true && edge.element().getNavigability() == navigability)) {
-                    IVertex<PointOfInterest> opposite = this.mapManager.getDiGraph().opposite(lowerCostVertex, edge);
-                    if (!visited.contains(opposite)) {
-                        double edgeWeight = criteria.getEdgeWeight(edge.element());
-
-                        double sourceCost = costs.get(lowerCostVertex);
-                        if (sourceCost + edgeWeight < costs.get(opposite)) {
-                            costs.put(opposite, sourceCost + edgeWeight);
-                            predecessors.put(opposite, lowerCostVertex);
-                            edges.put(opposite, edge);
-                        }
-                        unvisited.add(opposite);
-                    }
+            List<PointOfInterest> mustVisitPois,
+            int[] points,
+            IPathStrategy paths,
+            int[] order,
+            ITourSolver solver) throws CourseManagerException {
+        
+        int[] tour = new int[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            tour[i] = points[order[i]];
+        }
+        
+        List<PointOfInterest> pois = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        int cost = calculateMustVisitPOIs(graph, points[0], tour, paths, pois, connections);
+        
+        return new CalculatedPath(criteria, navigability, cost, pois, connections, mustVisitPois, solver);
+    }
+    
+    /**
+     * Method to calculate the pareto paths for the selected pois. The pareto
+     * optimal paths between every pair of points are found first, with one
+     * search from each point, and then combined in every pareto optimal tour.
+     * @param graph compact digraph of the map
+     * @param navigability true if user is on bike
+     * @param mustVisitPois list of pois which must be visited
+     * @return calculated pareto paths
+     * @throws MapManagerException
+     * @throws CourseManagerException
+     */
+    private CalculatedParetoPaths calculateParetoPaths(CompactDiGraph<PointOfInterest, Connection> graph,
+            boolean navigability,
+            List<PointOfInterest> mustVisitPois) throws MapManagerException, CourseManagerException {
+        
+        double[] costs = this.mapManager.getEdgeWeights(graph, new CriteriaStrategyCost());
+        double[] distances = this.mapManager.getEdgeWeights(graph, new CriteriaStrategyDistance());
+        int[] points = getPoints(graph, mustVisitPois);
+        
+        Map<Integer, ParetoLabels> searches = new HashMap<>();
+        ParetoLabels[] labels = new ParetoLabels[points.length];
+        double[][][] legCosts = new double[points.length][points.length][];
+        double[][][] legDistances = new double[points.length][points.length][];
+        for (int i = 0; i < points.length; ++i) {
+            labels[i] = searches.computeIfAbsent(points[i], origin -> new ParetoLabels(graph, costs, distances, navigability, origin));
+            for (int j = 0; j < points.length; ++j) {
+                legCosts[i][j] = labels[i].getCosts(points[j]);
+                legDistances[i][j] = labels[i].getDistances(points[j]);
+            }
+        }
+        
+        List<TourSolverPareto.Tour> tours = this.paretoTourSolver.solve(legCosts, legDistances, progress -> { });
+        if (tours.isEmpty()) {
+            throw new CourseManagerException("It is not possible to calculate a path for the selected point(s) of interest.");
+        }
+        
+        List<ParetoPath> paths = new ArrayList<>();
+        for (TourSolverPareto.Tour tour : tours) {
+            List<PointOfInterest> pois = new ArrayList<>();
+            List<Connection> connections = new ArrayList<>();
+            pois.add(graph.vertex(points[0]).element());
+            
+            // The tour returns to the start after its last point
+            int from = 0;
+            for (int position = 0; position <= tour.getOrder().length; ++position) {
+                int to = position < tour.getOrder().length ? tour.getOrder()[position] : 0;
+                for (int edge : labels[from].getPath(points[to], tour.getLegs()[position])) {
+                    pois.add(graph.vertex(graph.target(edge)).element());
+                    connections.add(graph.edge(edge).element());
                 }
+                from = to;
+            }
+            
+            paths.add(new ParetoPath(navigability, (int) Math.round(tour.getCost()), (int) Math.round(tour.getDistance()),
+                    pois, connections, mustVisitPois, this.paretoTourSolver));
+        }
+        
+        return new CalculatedParetoPaths(paths);
+    }
+    
+    /**
+     * Method to measure a calculated path in both cost and distance
+     * @param calculatedPath calculated path
+     * @return pareto path with the same course
+     */
+    private ParetoPath getParetoPath(CalculatedPath calculatedPath) {
+        int costEuros = 0;
+        int distance = 0;
+        for (Connection connection : calculatedPath.getConnections()) {
+            costEuros += connection.getCostEuros();
+            distance += connection.getDistance();
+        }
+        return new ParetoPath(calculatedPath.getNavigability(), costEuros, distance, calculatedPath.getPointsOfInterest(),
+                calculatedPath.getConnections(), calculatedPath.getMustVisit(), calculatedPath.getSolver());
+    }
+    
+    /**
+     * Method to repair the order of a calculated path for a new selection
+     * @param graph compact digraph of the map
+     * @param oldCalculatedPath path calculated for the previous selection
+     * @param mustVisitPois list of pois which must be visited
+     * @return immutable calculated path
+     * @throws MapManagerException
+     * @throws CourseManagerException
+     */
+    private CalculatedPath repairPath(CompactDiGraph<PointOfInterest, Connection> graph,
+            CalculatedPath oldCalculatedPath,
+            List<PointOfInterest> mustVisitPois) throws MapManagerException, CourseManagerException {
+        
+        ICriteriaStrategy criteria = oldCalculatedPath.getCriteria();
+        boolean navigability = oldCalculatedPath.getNavigability();
+        IPathStrategy paths = getPathStrategy(graph, criteria, navigability, mustVisitPois.size(), PathSearch.AUTOMATIC);
+        
+        int start = graph.idOf(this.mapManager.getStartVertex());
+        Set<Integer> selected = new HashSet<>();
+        for (PointOfInterest poi : mustVisitPois) {
+            selected.add(graph.idOf(this.mapManager.checkPointOfInterest(poi)));
+        }
+        selected.remove(start);
+        
+        // Selected points keep the order in which the old path first goes through them
+        Set<Integer> known = new LinkedHashSet<>();
+        for (PointOfInterest poi : oldCalculatedPath.getPointsOfInterest()) {
+            int id = graph.idOf(this.mapManager.checkPointOfInterest(poi));
+            if (selected.contains(id)) {
+                known.add(id);
+            }
+        }
+        
+        // Point 0 is the start, followed by the known points and the missing ones
+        int[] points = new int[selected.size() + 1];
+        int[] order = new int[known.size()];
+        int count = 0;
+        points[count++] = start;
+        for (int id : known) {
+            order[count - 1] = count;
+            points[count++] = id;
+        }
+        for (int id : selected) {
+            if (!known.contains(id)) {
+                points[count++] = id;
             }
-            visited.add(lowerCostVertex);
         }
         
-        CalculatedDijkstra calculatedDijkstra = new CalculatedDijkstra();
-        calculatedDijkstra.setCosts(costs);
-        calculatedDijkstra.setPredecessors(predecessors);
-        calculatedDijkstra.setEdges(edges);
+        order = this.heuristicTourSolver.repair(getCostMatrix(points, paths), order);
         
-        calculatedDijkstras.put(orig, calculatedDijkstra);
+        int[] tour = new int[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            tour[i] = points[order[i]];
+        }
+        
+        List<PointOfInterest> pois = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        int cost = calculateMustVisitPOIs(graph, start, tour, paths, pois, connections);
+        
+        return new CalculatedPath(criteria, navigability, cost, pois, connections, mustVisitPois, this.heuristicTourSolver);
     }
-
-    private IVertex<PointOfInterest> findLowerCostVertex(Set<IVertex<PointOfInterest>> unvisited, 
-            Map<IVertex<PointOfInterest>, Double> costs) {
-        
-        double min = Double.MAX_VALUE;
-        IVertex<PointOfInterest> minCostVertex = null;
-        for (IVertex<PointOfInterest> vertex : unvisited){
-            if (costs.get(vertex) <= min){
-                minCostVertex = vertex;
-                min = costs.get(vertex);
+    
+    /**
+     * Method to choose how minimum paths are found. Automatically, the paths
+     * the map manager calculated between every pair of points are used when
+     * available, followed by its contraction hierarchies on very large maps.
+     * Small selections only need a few pairs, which A* finds settling fewer
+     * vertices than a full Dijkstra from each point.
+     * @param graph compact digraph of the map
+     * @param criteria criteria strategy used for calculation
+     * @param navigability true if user is on bike
+     * @param numberPois number of selected points of interest
+     * @param search search asked for
+     * @return path strategy instance
+     */
+    private IPathStrategy getPathStrategy(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
+            boolean navigability,
+            int numberPois,
+            PathSearch search) {
+        if (search == PathSearch.AUTOMATIC) {
+            IPathStrategy paths = this.mapManager.getAllPairsPaths(graph, criteria, navigability);
+            if (paths != null) {
+                return paths;
+            }
+        }
+        
+        if (search == PathSearch.AUTOMATIC || search == PathSearch.CONTRACTION) {
+            ContractionHierarchy hierarchy = this.mapManager.getContractionHierarchy(graph, criteria, navigability, search == PathSearch.CONTRACTION);
+            if (hierarchy != null) {
+                return new PathStrategyContraction(hierarchy);
+            }
+        }
+        
+        if (search == PathSearch.BIDIRECTIONAL) {
+            return new PathStrategyBidirectional(graph, this.mapManager.getEdgeWeights(graph, criteria), navigability);
+        }
+        
+        if (search == PathSearch.LANDMARKS || (search == PathSearch.AUTOMATIC && numberPois <= this.landmarksMaxPois)) {
+            Landmarks landmarks = this.mapManager.getLandmarks(graph, criteria, search == PathSearch.LANDMARKS);
+            if (landmarks != null) {
+                return new PathStrategyLandmarks(graph, this.mapManager.getEdgeWeights(graph, criteria), navigability, landmarks);
             }
         }
         
-        return minCostVertex;
+        // Dijkstra results of the last request are kept for the next ones on the same map
+        synchronized (this) {
+            if (this.lastDijkstraPaths == null
+                    || !this.lastDijkstraPaths.isFor(graph)
+                    || !this.lastDijkstraCriteria.equals(criteria)
+                    || this.lastDijkstraNavigability != navigability) {
+                this.lastDijkstraPaths = new PathStrategyDijkstra(graph, this.mapManager.getEdgeWeights(graph, criteria), navigability, this.dijkstraMaxOrigins);
+                this.lastDijkstraCriteria = criteria;
+                this.lastDijkstraNavigability = navigability;
+            }
+            return this.lastDijkstraPaths;
+        }
+    }
+    
+    /**
+     * Method to choose the tour solver for a selection, since exact solutions
+     * are only affordable for small selections
+     * @param numberPois number of selected points of interest
+     * @return tour solver instance
+     */
+    private ITourSolver getTourSolver(int numberPois) {
+        if (numberPois <= this.exactMaxPois) {
+            return this.exactTourSolver;
+        }
+        if (numberPois <= this.branchAndBoundMaxPois) {
+            return this.branchAndBoundTourSolver;
+        }
+        return this.heuristicTourSolver;
     }
     
+    /**
+     * Method to get the vertex ids of the start and the selected pois
+     * @param graph compact digraph of the map
+     * @param mustVisitPois list of pois which must be visited
+     * @return point 0 is the start, followed by the points to visit
+     * @throws MapManagerException
+     */
+    private int[] getPoints(CompactDiGraph<PointOfInterest, Connection> graph,
+            List<PointOfInterest> mustVisitPois) throws MapManagerException {
+        int[] points = new int[mustVisitPois.size() + 1];
+        points[0] = graph.idOf(this.mapManager.getStartVertex());
+        for (int i = 0; i < mustVisitPois.size(); ++i) {
+            points[i + 1] = graph.idOf(this.mapManager.checkPointOfInterest(mustVisitPois.get(i)));
+        }
+        return points;
+    }
+    
+    /**
+     * Method to get the minimum costs between every pair of points
+     * @param points vertex ids of the points
+     * @param paths path strategy used to find the costs
+     * @return matrix of costs indexed by point position
+     * @throws CancellationException if the thread was interrupted
+     */
+    private double[][] getCostMatrix(int[] points, IPathStrategy paths) {
+        double[][] costs = new double[points.length][points.length];
+        for (int i = 0; i < points.length; ++i) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("The course calculation was cancelled.");
+            }
+            for (int j = 0; j < points.length; ++j) {
+                costs[i][j] = paths.getCost(points[i], points[j]);
+            }
+        }
+        return costs;
+    }
+    
+    private int calculateMustVisitPOIs(CompactDiGraph<PointOfInterest, Connection> graph,
+            int startPoi,
+            int[] tour,
+            IPathStrategy paths,
+            List<PointOfInterest> pois,
+            List<Connection> connections) throws CourseManagerException {
+        
+        // Weighted criteria have fractional costs, so they are only rounded once
+        double cost = 0.0;
+        
+        pois.add(graph.vertex(startPoi).element());
+        
+        int origin = startPoi;
+        int destination;
+        for (int poi : tour) {
+            destination = poi;
+            cost += getMinimumPathFromTwoPOIs(graph, origin, destination, paths, pois, connections);
+            origin = destination;
+        }
+        destination = startPoi;
+        cost += getMinimumPathFromTwoPOIs(graph, origin, destination, paths, pois, connections);
+        
+        return (int) Math.round(cost);
+        
+    }
+    
+    private double getMinimumPathFromTwoPOIs(CompactDiGraph<PointOfInterest, Connection> graph,
+            int origin,
+            int destination,
+            IPathStrategy paths,
+            List<PointOfInterest> pois,
+            List<Connection> connections) throws CourseManagerException {
+        
+        int[] path = paths.getPath(origin, destination);
+        if (path == null) {
+            throw new CourseManagerException("It is not possible to calculate a path for the selected point(s) of interest.");
+        }
+        
+        for (int edge : path) {
+            pois.add(graph.vertex(graph.target(edge)).element());
+            connections.add(graph.edge(edge).element());
+        }
+        
+        return paths.getCost(origin, destination);
+        
+    }
+
     @Override
-    public String toString() {
+    public synchronized String toString() {
         String returnString = "COURSE MANAGER\n";
         
         if (this.calculatedPath == null) {
@@ -249,6 +935,7 @@ public class CourseManager {
         } else {
             returnString += "\tBest (" + this.calculatedPath.getCriteria() + ") path for the selected points of interest (onBike: " + this.calculatedPath.getNavigability() + ")\n";
             returnString += "\tTotal cost (" + this.calculatedPath.getCriteria().getUnit() + ") = " + this.calculatedPath.getCost() + "\n";
+            returnString += "\tSolver = " + this.calculatedPath.getSolver() + "\n";
             
             returnString += "\tPoints of Interest:\n";
             for (PointOfInterest pointOfInterest : this.calculatedPath.getPointsOfInterest()) {
@@ -20,4 +20,17 @@ public class CriteriaStrategyCost implements ICriteriaStrategy {
         return "Cost";
     }
     
+    /**
+     * Strategies hold no state, so every instance of the same class is equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj != null && getClass() == obj.getClass();
+    }
+    
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+    
 }
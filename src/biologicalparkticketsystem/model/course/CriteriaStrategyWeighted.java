@@ -0,0 +1,97 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.Arrays;
+
+/**
+ * Class used for path calculation with a weighted sum of other criteria
+ * strategies, such as cost and distance, as criteria strategy
+ */
+public class CriteriaStrategyWeighted implements ICriteriaStrategy {
+    
+    private final ICriteriaStrategy[] criteria;
+    private final double[] factors;
+    
+    /**
+     * Creates the strategy combining cost and distance
+     * @param costFactor factor of the cost, in euros
+     * @param distanceFactor factor of the distance, in meters
+     */
+    public CriteriaStrategyWeighted(double costFactor, double distanceFactor) {
+        this(new ICriteriaStrategy[] { new CriteriaStrategyCost(), new CriteriaStrategyDistance() },
+                new double[] { costFactor, distanceFactor });
+    }
+    
+    /**
+     * Creates the strategy
+     * @param criteria criteria strategies combined
+     * @param factors factor of each criteria strategy, not negative
+     */
+    public CriteriaStrategyWeighted(ICriteriaStrategy[] criteria, double[] factors) {
+        if (criteria.length == 0 || criteria.length != factors.length) {
+            throw new IllegalArgumentException("Each criteria must have one factor.");
+        }
+        for (double factor : factors) {
+            if (!(factor >= 0.0) || factor == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Criteria factors must be finite and not negative.");
+            }
+        }
+        this.criteria = criteria.clone();
+        this.factors = factors.clone();
+    }
+    
+    /**
+     * Method to get the number of criteria strategies combined
+     * @return number of criteria
+     */
+    public int countCriteria() {
+        return this.criteria.length;
+    }
+    
+    public ICriteriaStrategy getCriteria(int index) {
+        return this.criteria[index];
+    }
+    
+    public double getFactor(int index) {
+        return this.factors[index];
+    }
+    
+    @Override
+    public double getEdgeWeight(Connection connection) {
+        double weight = 0.0;
+        for (int i = 0; i < this.criteria.length; ++i) {
+            weight += this.factors[i] * this.criteria[i].getEdgeWeight(connection);
+        }
+        return weight;
+    }
+    
+    @Override
+    public String getUnit() {
+        return "Points";
+    }
+    
+    @Override
+    public String toString() {
+        return "Weighted";
+    }
+    
+    /**
+     * Strategies combining the same criteria with the same factors are equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        CriteriaStrategyWeighted other = (CriteriaStrategyWeighted) obj;
+        return Arrays.equals(this.criteria, other.criteria) && Arrays.equals(this.factors, other.factors);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.criteria) + Arrays.hashCode(this.factors);
+    }
+    
+}
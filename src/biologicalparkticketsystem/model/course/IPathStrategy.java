@@ -0,0 +1,27 @@
+package biologicalparkticketsystem.model.course;
+
+/**
+ * Interface to define the strategy used to find minimum paths between the
+ * vertices of a compact digraph. Each instance is bound to the digraph, edge
+ * weights and navigability it was created for.
+ */
+public interface IPathStrategy {
+    
+    /**
+     * Method to get the cost of the minimum path between two vertices
+     * @param origin origin vertex id
+     * @param destination destination vertex id
+     * @return path cost, or Double.POSITIVE_INFINITY if there is no path
+     */
+    double getCost(int origin, int destination);
+    
+    /**
+     * Method to get the edges of the minimum path between two vertices
+     * @param origin origin vertex id
+     * @param destination destination vertex id
+     * @return edge ids in path order, empty if both vertices are the same, or
+     * null if there is no path
+     */
+    int[] getPath(int origin, int destination);
+    
+}
@@ -0,0 +1,36 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Interface to define the solver used to order the points of interest of a
+ * course
+ */
+public interface ITourSolver {
+    
+    /**
+     * Method to find the order to visit a set of points that minimizes the
+     * cost of a tour starting and ending at point 0
+     * @param costs matrix of minimum costs between points, where costs[i][j]
+     * is the cost from point i to point j, or Double.POSITIVE_INFINITY if
+     * there is no path
+     * @return points 1 to costs.length - 1 in visiting order
+     */
+    int[] solve(double[][] costs);
+    
+    /**
+     * Method to find the order as solve does, reporting the progress of long
+     * searches and giving up when the thread is interrupted, so calculations
+     * running in the background can be followed and cancelled
+     * @param costs matrix of minimum costs between points, as in solve
+     * @param progress receives the fraction of the search already done, from
+     * 0 to 1
+     * @return points 1 to costs.length - 1 in visiting order
+     * @throws java.util.concurrent.CancellationException if the thread was
+     * interrupted before the order was found
+     */
+    default int[] solve(double[][] costs, DoubleConsumer progress) {
+        return solve(costs);
+    }
+    
+}
@@ -0,0 +1,140 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min heap of dense vertex ids ordered by a double priority, with
+ * decrease-key support. Every structure is a primitive array indexed by the
+ * vertex id, so no value is boxed.
+ */
+class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] priorities;
+    private int size;
+
+    /**
+     * Creates an empty heap
+     * @param capacity number of vertex ids, from 0 to capacity - 1
+     */
+    IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.priorities = new double[capacity];
+        this.size = 0;
+
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * Method to remove every vertex, in time proportional to the number of
+     * vertices in the heap
+     */
+    void clear() {
+        for (int position = 0; position < this.size; ++position) {
+            this.positions[this.heap[position]] = -1;
+        }
+        this.size = 0;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    boolean contains(int vertex) {
+        return this.positions[vertex] != -1;
+    }
+
+    /**
+     * Method to get the priority of the vertex at the top of the heap
+     * @return minimum priority
+     */
+    double peekPriority() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        return this.priorities[this.heap[0]];
+    }
+
+    /**
+     * Method to insert a vertex, or to lower its priority if it is already in
+     * the heap with a higher one
+     * @param vertex vertex id
+     * @param priority vertex priority
+     */
+    void push(int vertex, double priority) {
+        int position = this.positions[vertex];
+        if (position == -1) {
+            position = this.size++;
+            this.heap[position] = vertex;
+            this.positions[vertex] = position;
+        } else if (priority >= this.priorities[vertex]) {
+            return;
+        }
+        this.priorities[vertex] = priority;
+        siftUp(position);
+    }
+
+    /**
+     * Method to remove the vertex with the minimum priority
+     * @return vertex id
+     */
+    int poll() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        int vertex = this.heap[0];
+        this.positions[vertex] = -1;
+
+        --this.size;
+        if (this.size > 0) {
+            this.heap[0] = this.heap[this.size];
+            this.positions[this.heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return vertex;
+    }
+
+    private void siftUp(int position) {
+        int vertex = this.heap[position];
+        double priority = this.priorities[vertex];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (this.priorities[this.heap[parent]] <= priority) {
+                break;
+            }
+            this.heap[position] = this.heap[parent];
+            this.positions[this.heap[position]] = position;
+            position = parent;
+        }
+        this.heap[position] = vertex;
+        this.positions[vertex] = position;
+    }
+
+    private void siftDown(int position) {
+        int vertex = this.heap[position];
+        double priority = this.priorities[vertex];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= this.size) {
+                break;
+            }
+            if (child + 1 < this.size && this.priorities[this.heap[child + 1]] < this.priorities[this.heap[child]]) {
+                ++child;
+            }
+            if (this.priorities[this.heap[child]] >= priority) {
+                break;
+            }
+            this.heap[position] = this.heap[child];
+            this.positions[this.heap[position]] = position;
+            position = child;
+        }
+        this.heap[position] = vertex;
+        this.positions[vertex] = position;
+    }
+
+}
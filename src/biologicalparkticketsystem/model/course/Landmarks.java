@@ -0,0 +1,124 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+
+/**
+ * Class to keep the minimum costs from and to a few landmark vertices, used
+ * to get lower bounds of the cost between any two vertices.
+ *
+ * By the triangle inequality, the cost from v to t is at least
+ * cost(L, t) - cost(L, v) and cost(v, L) - cost(t, L) for every landmark L,
+ * so the best of those differences is a lower bound that A* can use as its
+ * heuristic. Landmarks are picked far from each other, since landmarks
+ * behind the destination give the tightest bounds.
+ *
+ * The costs are calculated using every edge, so the bounds also hold when
+ * only navigable edges can be used, where costs can only be higher. Costs are
+ * kept in flattened primitive arrays indexed by landmark * numVertices + vertex,
+ * and instances are immutable once built.
+ */
+public class Landmarks {
+    
+    private final int numVertices;
+    private final int[] landmarks;
+    private final double[] fromLandmarks;
+    private final double[] toLandmarks;
+    
+    /**
+     * Creates the landmarks of a compact digraph
+     * @param graph compact digraph
+     * @param weights weight of each edge id
+     * @param count number of landmarks, limited to the number of vertices
+     */
+    public Landmarks(CompactDiGraph<PointOfInterest, Connection> graph, double[] weights, int count) {
+        this.numVertices = graph.numVertices();
+        this.landmarks = new int[Math.min(count, this.numVertices)];
+        this.fromLandmarks = new double[this.landmarks.length * this.numVertices];
+        this.toLandmarks = new double[this.landmarks.length * this.numVertices];
+        
+        // Each landmark is the vertex farthest from the landmarks already
+        // picked, starting with the vertex farthest from vertex 0
+        double[] nearest = infiniteCosts(PathStrategyDijkstra.dijkstraAlgorithm(graph, weights, false, 0).getCosts());
+        boolean[] picked = new boolean[this.numVertices];
+        for (int l = 0; l < this.landmarks.length; ++l) {
+            int landmark = -1;
+            for (int vertex = 0; vertex < this.numVertices; ++vertex) {
+                if (!picked[vertex] && (landmark == -1 || farther(nearest[vertex], nearest[landmark]))) {
+                    landmark = vertex;
+                }
+            }
+            this.landmarks[l] = landmark;
+            picked[landmark] = true;
+            
+            double[] from = infiniteCosts(PathStrategyDijkstra.dijkstraAlgorithm(graph, weights, false, landmark).getCosts());
+            double[] to = infiniteCosts(PathStrategyDijkstra.reverseDijkstraAlgorithm(graph, weights, false, landmark).getCosts());
+            System.arraycopy(from, 0, this.fromLandmarks, l * this.numVertices, this.numVertices);
+            System.arraycopy(to, 0, this.toLandmarks, l * this.numVertices, this.numVertices);
+            
+            for (int vertex = 0; vertex < this.numVertices; ++vertex) {
+                nearest[vertex] = l == 0 ? from[vertex] : Math.min(nearest[vertex], from[vertex]);
+            }
+        }
+    }
+    
+    /**
+     * Method to get the landmark vertices
+     * @return vertex ids of the landmarks
+     */
+    public int[] getLandmarks() {
+        return this.landmarks.clone();
+    }
+    
+    /**
+     * Method to get a lower bound of the cost of the minimum path between two
+     * vertices
+     * @param vertex origin vertex id
+     * @param destination destination vertex id
+     * @return lower bound, or Double.POSITIVE_INFINITY if there is no path
+     */
+    public double lowerBound(int vertex, int destination) {
+        double bound = 0.0;
+        for (int row = 0; row < this.fromLandmarks.length; row += this.numVertices) {
+            double fromVertex = this.fromLandmarks[row + vertex];
+            if (fromVertex != Double.POSITIVE_INFINITY) {
+                double fromDestination = this.fromLandmarks[row + destination];
+                if (fromDestination == Double.POSITIVE_INFINITY) {
+                    // The landmark reaches the vertex but not the destination
+                    return Double.POSITIVE_INFINITY;
+                }
+                bound = Math.max(bound, fromDestination - fromVertex);
+            }
+            double toDestination = this.toLandmarks[row + destination];
+            if (toDestination != Double.POSITIVE_INFINITY) {
+                double toVertex = this.toLandmarks[row + vertex];
+                if (toVertex == Double.POSITIVE_INFINITY) {
+                    // The destination reaches the landmark but the vertex does not
+                    return Double.POSITIVE_INFINITY;
+                }
+                bound = Math.max(bound, toVertex - toDestination);
+            }
+        }
+        return bound;
+    }
+    
+    /**
+     * Method to compare costs where unreachable vertices are the nearest, so
+     * they are only picked when every other vertex was
+     */
+    private static boolean farther(double cost, double other) {
+        if (other == Double.POSITIVE_INFINITY) {
+            return cost != Double.POSITIVE_INFINITY;
+        }
+        return cost != Double.POSITIVE_INFINITY && cost > other;
+    }
+    
+    private static double[] infiniteCosts(double[] costs) {
+        for (int vertex = 0; vertex < costs.length; ++vertex) {
+            if (costs[vertex] == Double.MAX_VALUE) {
+                costs[vertex] = Double.POSITIVE_INFINITY;
+            }
+        }
+        return costs;
+    }
+    
+}
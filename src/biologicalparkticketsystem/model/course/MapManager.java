@@ -1,35 +1,336 @@
 package biologicalparkticketsystem.model.course;
 
+import biologicalparkticketsystem.ConfigManager;
 import biologicalparkticketsystem.LoggerManager;
+import digraph.CompactDiGraph;
+import digraph.ConcurrentDiGraph;
 import digraph.DiGraph;
+import digraph.IDiGraph;
 import digraph.IEdge;
+import digraph.IntDiGraph;
 import digraph.IVertex;
 import digraph.InvalidVertexException;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 /**
  * Class responsible to manage the map load and digraph generation
  */
 public class MapManager {
     
-    private DiGraph<PointOfInterest, Connection> digraph;
+    /**
+     * Indexes of the connection attributes stored in the int digraph edges
+     */
+    public static final int ATTRIBUTE_COST = 0;
+    public static final int ATTRIBUTE_DISTANCE = 1;
+    public static final int ATTRIBUTE_NAVIGABILITY = 2;
+    
+    private static final int DEFAULT_LANDMARKS_COUNT = 8;
+    
+    private ConcurrentDiGraph<PointOfInterest, Connection> digraph;
+    private volatile MapSnapshot mapSnapshot;
     private PointOfInterest startPoint;
+    private final int allPairsMaxVertices;
+    private final int landmarksCount;
+    private final int contractionMinVertices;
 
     public MapManager() throws MapManagerException {
-        this.digraph = new DiGraph<>();
+        this.digraph = new ConcurrentDiGraph<>();
+        this.mapSnapshot = null;
         this.startPoint = null;
+        this.allPairsMaxVertices = Integer.parseInt(
+                ConfigManager.getInstance().getProperties().getProperty("course.all_pairs.max_vertices", "1000")
+        );
+        this.landmarksCount = Integer.parseInt(
+                ConfigManager.getInstance().getProperties().getProperty("course.landmarks.count", String.valueOf(DEFAULT_LANDMARKS_COUNT))
+        );
+        this.contractionMinVertices = Integer.parseInt(
+                ConfigManager.getInstance().getProperties().getProperty("course.contraction.min_vertices", "5000")
+        );
     }
     
-    public DiGraph<PointOfInterest, Connection> getDiGraph() {
+    public ConcurrentDiGraph<PointOfInterest, Connection> getDiGraph() {
         return this.digraph;
     }
     
+    /**
+     * Method to get the compact snapshot of the loaded map used for course
+     * calculations, where navigable edges are the ones open to bicycles.
+     * The snapshot is rebuilt when the digraph changed since it was taken.
+     * @return compact digraph instance
+     */
+    public CompactDiGraph<PointOfInterest, Connection> getCompactDiGraph() {
+        return getMapSnapshot().compact;
+    }
+    
+    /**
+     * Method to get the weight of every edge of a compact snapshot for a
+     * criteria, so searches read an array instead of asking the criteria for
+     * each edge. Weights are calculated once per version of the map and
+     * shared by every request, except the ones of weighted criteria, which
+     * can have any factors and are quickly added up again for each request.
+     * @param graph compact digraph the weights are needed for
+     * @param criteria criteria strategy used for the edge weights
+     * @return weight of each edge id
+     */
+    public double[] getEdgeWeights(CompactDiGraph<PointOfInterest, Connection> graph, ICriteriaStrategy criteria) {
+        MapSnapshot snapshot = getMapSnapshot();
+        if (snapshot.compact != graph || !isKept(criteria)) {
+            return calculateEdgeWeights(graph, criteria);
+        }
+        double[] weights = snapshot.edgeWeights.get(criteria);
+        if (weights == null) {
+            // Weighted criteria need the weights of other criteria, so they are not calculated inside the map
+            weights = calculateEdgeWeights(graph, criteria);
+            double[] previous = snapshot.edgeWeights.putIfAbsent(criteria, weights);
+            if (previous != null) {
+                weights = previous;
+            }
+        }
+        return weights;
+    }
+    
+    /**
+     * Method to calculate the weight of every edge for a criteria. Weighted
+     * criteria add up the weights of the criteria they combine, with a loop
+     * over arrays instead of calling each criteria for every edge.
+     * @param graph compact digraph the weights are needed for
+     * @param criteria criteria strategy used for the edge weights
+     * @return weight of each edge id
+     */
+    private double[] calculateEdgeWeights(CompactDiGraph<PointOfInterest, Connection> graph, ICriteriaStrategy criteria) {
+        if (!(criteria instanceof CriteriaStrategyWeighted)) {
+            return graph.weights(criteria::getEdgeWeight);
+        }
+        
+        CriteriaStrategyWeighted weighted = (CriteriaStrategyWeighted) criteria;
+        double[] weights = new double[graph.numEdges()];
+        for (int i = 0; i < weighted.countCriteria(); ++i) {
+            double[] criteriaWeights = getEdgeWeights(graph, weighted.getCriteria(i));
+            double factor = weighted.getFactor(i);
+            for (int edge = 0; edge < weights.length; ++edge) {
+                weights[edge] += factor * criteriaWeights[edge];
+            }
+        }
+        return weights;
+    }
+    
+    /**
+     * Method to get the minimum paths between every pair of points of interest
+     * of a compact snapshot for a criteria and navigability. They are
+     * calculated once per version of the map and shared by every request.
+     * Maps with more points of interest than the configured maximum are not
+     * calculated, since the matrices grow with the square of that number,
+     * and neither are weighted criteria.
+     * @param graph compact digraph the paths are needed for
+     * @param criteria criteria strategy used for the edge weights
+     * @param navigability true if user is on bike
+     * @return all pairs strategy, or null if the map is too large, the
+     * criteria is weighted or the compact digraph is no longer the current one
+     */
+    public PathStrategyAllPairs getAllPairsPaths(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
+            boolean navigability) {
+        MapSnapshot snapshot = getMapSnapshot();
+        if (snapshot.compact != graph || graph.numVertices() > this.allPairsMaxVertices || !isKept(criteria)) {
+            return null;
+        }
+        return snapshot.allPairsPaths.computeIfAbsent(new PathsKey(criteria, navigability),
+                key -> new PathStrategyAllPairs(graph, getEdgeWeights(graph, criteria), navigability));
+    }
+    
+    /**
+     * Method to get the landmarks of a compact snapshot for a criteria, used
+     * to find paths between a few pairs of points of interest with A*. They
+     * are calculated once per version of the map and shared by every request.
+     * When they are disabled or the criteria is weighted they are not kept,
+     * and are only built each time they are asked to be built.
+     * @param graph compact digraph the landmarks are needed for
+     * @param criteria criteria strategy used for the edge weights
+     * @param build true to build the landmarks even if they are not kept
+     * @return landmarks, or null if they are not kept and not asked to be
+     * built, or the compact digraph is no longer the current one
+     */
+    public Landmarks getLandmarks(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
+            boolean build) {
+        MapSnapshot snapshot = getMapSnapshot();
+        if (snapshot.compact != graph || graph.numVertices() == 0) {
+            return null;
+        }
+        if (this.landmarksCount <= 0 || !isKept(criteria)) {
+            return build ? new Landmarks(graph, getEdgeWeights(graph, criteria),
+                    this.landmarksCount > 0 ? this.landmarksCount : DEFAULT_LANDMARKS_COUNT) : null;
+        }
+        return snapshot.landmarks.computeIfAbsent(criteria,
+                key -> new Landmarks(graph, getEdgeWeights(graph, criteria), this.landmarksCount));
+    }
+    
+    /**
+     * Method to get the contraction hierarchy of a compact snapshot for a
+     * criteria and navigability. Hierarchies are built when the map loads for
+     * maps with at least the configured number of points of interest, and
+     * once per version of the map when asked to build them. Hierarchies of
+     * weighted criteria are built each time they are asked to be built.
+     * @param graph compact digraph the hierarchy is needed for
+     * @param criteria criteria strategy used for the edge weights
+     * @param navigability true if user is on bike
+     * @param build true to build the hierarchy if it was not built yet
+     * @return contraction hierarchy, or null if it was not built or the
+     * compact digraph is no longer the current one
+     */
+    public ContractionHierarchy getContractionHierarchy(CompactDiGraph<PointOfInterest, Connection> graph,
+            ICriteriaStrategy criteria,
+            boolean navigability,
+            boolean build) {
+        MapSnapshot snapshot = getMapSnapshot();
+        if (snapshot.compact != graph) {
+            return null;
+        }
+        if (!isKept(criteria)) {
+            return build ? new ContractionHierarchy(graph, getEdgeWeights(graph, criteria), navigability) : null;
+        }
+        PathsKey key = new PathsKey(criteria, navigability);
+        if (!build) {
+            return snapshot.contractionHierarchies.get(key);
+        }
+        return snapshot.contractionHierarchies.computeIfAbsent(key,
+                k -> new ContractionHierarchy(graph, getEdgeWeights(graph, criteria), navigability));
+    }
+    
+    /**
+     * Method to know if the data of a criteria is kept in the map snapshot.
+     * Weighted criteria are not, since every factor chosen would add entries.
+     * @param criteria criteria strategy
+     * @return true if it is kept
+     */
+    private static boolean isKept(ICriteriaStrategy criteria) {
+        return !(criteria instanceof CriteriaStrategyWeighted);
+    }
+    
+    /**
+     * Method to get the data derived from the current version of the digraph,
+     * rebuilding it if the digraph changed since it was last built
+     * @return map snapshot
+     */
+    private MapSnapshot getMapSnapshot() {
+        MapSnapshot snapshot = this.mapSnapshot;
+        if (snapshot == null || snapshot.version != this.digraph.version()) {
+            snapshot = new MapSnapshot(this.digraph.snapshot());
+            this.mapSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Method to get the primitive copy of the loaded map, where vertices are
+     * the points of interest ids and edges store the connection id with its
+     * cost, distance and navigability (1 if open to bicycles, 0 otherwise).
+     * It is built from the compact snapshot when first asked for, once per
+     * version of the map.
+     * @return int digraph instance
+     */
+    public IntDiGraph getIntDiGraph() {
+        MapSnapshot snapshot = getMapSnapshot();
+        IntDiGraph intDiGraph = snapshot.intDiGraph;
+        if (intDiGraph == null) {
+            intDiGraph = buildIntDiGraph(snapshot.compact);
+            snapshot.intDiGraph = intDiGraph;
+        }
+        return intDiGraph;
+    }
+    
+    /**
+     * Method to build the primitive copy of a compact digraph, with the edges
+     * in the same order
+     * @param graph compact digraph of the map
+     * @return int digraph instance
+     */
+    private static IntDiGraph buildIntDiGraph(CompactDiGraph<PointOfInterest, Connection> graph) {
+        IntDiGraph intDiGraph = new IntDiGraph(3, graph.numVertices(), graph.numEdges());
+        for (int vertex = 0; vertex < graph.numVertices(); ++vertex) {
+            intDiGraph.insertVertex(graph.vertex(vertex).element().getPoiId());
+        }
+        for (int edge = 0; edge < graph.numEdges(); ++edge) {
+            Connection connection = graph.edge(edge).element();
+            int intEdge = intDiGraph.insertEdge(graph.vertex(graph.source(edge)).element().getPoiId(),
+                    graph.vertex(graph.target(edge)).element().getPoiId(),
+                    connection.getConnectionId());
+            intDiGraph.setAttribute(intEdge, ATTRIBUTE_COST, connection.getCostEuros());
+            intDiGraph.setAttribute(intEdge, ATTRIBUTE_DISTANCE, connection.getDistance());
+            intDiGraph.setAttribute(intEdge, ATTRIBUTE_NAVIGABILITY, graph.isNavigable(edge) ? 1 : 0);
+        }
+        return intDiGraph;
+    }
+    
+    /**
+     * Method to get the points of interest that cannot be visited by bicycle,
+     * since no path of connections open to bicycles goes from the start to
+     * them and back. They are found once per version of the map.
+     * @return points of interest not reachable by bicycle
+     */
+    public List<PointOfInterest> getUnreachableByBicycle() {
+        MapSnapshot snapshot = getMapSnapshot();
+        List<PointOfInterest> unreachable = snapshot.unreachableByBicycle;
+        if (unreachable == null) {
+            unreachable = findUnreachableByBicycle(snapshot.compact);
+            snapshot.unreachableByBicycle = unreachable;
+        }
+        return unreachable;
+    }
+    
+    /**
+     * Method to find the points of interest not reachable by bicycle, with a
+     * search over the navigable edges from the start and another one over the
+     * same edges backwards
+     * @param graph compact digraph of the map
+     * @return points of interest not reachable by bicycle
+     */
+    private List<PointOfInterest> findUnreachableByBicycle(CompactDiGraph<PointOfInterest, Connection> graph) {
+        int start = graph.idOf(getStartVertex());
+        boolean[] reached = reachable(graph, start, true);
+        boolean[] returned = reachable(graph, start, false);
+        
+        List<PointOfInterest> unreachable = new ArrayList<>();
+        for (int vertex = 0; vertex < graph.numVertices(); ++vertex) {
+            if (!reached[vertex] || !returned[vertex]) {
+                unreachable.add(graph.vertex(vertex).element());
+            }
+        }
+        return Collections.unmodifiableList(unreachable);
+    }
+    
+    private boolean[] reachable(CompactDiGraph<PointOfInterest, Connection> graph, int start, boolean forward) {
+        boolean[] reached = new boolean[graph.numVertices()];
+        Deque<Integer> pending = new ArrayDeque<>();
+        reached[start] = true;
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            int vertex = pending.pop();
+            int end = forward ? graph.outboundEnd(vertex, true) : graph.inboundEnd(vertex, true);
+            for (int index = forward ? graph.outboundStart(vertex, true) : graph.inboundStart(vertex, true); index < end; ++index) {
+                int opposite = forward ? graph.target(graph.outboundEdge(index, true)) : graph.source(graph.inboundEdge(index, true));
+                if (!reached[opposite]) {
+                    reached[opposite] = true;
+                    pending.push(opposite);
+                }
+            }
+        }
+        return reached;
+    }
+    
     public IVertex<PointOfInterest> getStartVertex() {
         return this.getDiGraph().getVertexByElement(this.startPoint);
     }
@@ -44,20 +345,43 @@ public class MapManager {
             File mapFile = new File(mapFilePath);
             Scanner scanner = new Scanner(mapFile);
 
-            Map<Integer, PointOfInterest> loadedPOIs = loadMapPois(scanner);
+            DiGraph.Builder<PointOfInterest, Connection> builder = new DiGraph.Builder<>();
+            Map<Integer, PointOfInterest> loadedPOIs = loadMapPois(scanner, builder);
 
-            loadMapConnections(scanner, loadedPOIs);
+            loadMapConnections(scanner, loadedPOIs, builder);
+            this.digraph = new ConcurrentDiGraph<>(builder.build());
+            this.mapSnapshot = new MapSnapshot(this.digraph.snapshot());
+            
+            // Calculate the paths of the available criteria before any request,
+            // or the landmarks when the map is too large for every pair, and
+            // the hierarchies of very large maps
+            CompactDiGraph<PointOfInterest, Connection> compact = this.mapSnapshot.compact;
+            for (ICriteriaStrategy criteria : new ICriteriaStrategy[] { new CriteriaStrategyCost(), new CriteriaStrategyDistance() }) {
+                if (getAllPairsPaths(compact, criteria, false) == null) {
+                    getLandmarks(compact, criteria, false);
+                }
+                getAllPairsPaths(compact, criteria, true);
+                if (compact.numVertices() >= this.contractionMinVertices) {
+                    getContractionHierarchy(compact, criteria, false, true);
+                    getContractionHierarchy(compact, criteria, true, true);
+                }
+            }
 
             // Set startPoint
             this.startPoint = loadedPOIs.entrySet().iterator().next().getValue();
+            
+            List<PointOfInterest> unreachable = getUnreachableByBicycle();
+            if (!unreachable.isEmpty()) {
+                LoggerManager.getInstance().log("Points of interest not reachable by bicycle: " + unreachable, Level.WARNING);
+            }
         } catch (FileNotFoundException ex) {
             throw new MapManagerException("Specified park map file not found (" + ex.getMessage() + ")");
-        } catch (MapManagerException | NumberFormatException ex) {
+        } catch (MapManagerException | IllegalArgumentException | InvalidVertexException ex) {
             throw new MapManagerException(ex.getMessage());
         }
     }
     
-    private Map<Integer, PointOfInterest> loadMapPois(Scanner scanner) throws MapManagerException {
+    private Map<Integer, PointOfInterest> loadMapPois(Scanner scanner, DiGraph.Builder<PointOfInterest, Connection> builder) throws MapManagerException {
         Map<Integer, PointOfInterest> loadedPOIs = new LinkedHashMap<>();
         
         while (!scanner.hasNextInt()) {
@@ -76,8 +400,7 @@ public class MapManager {
                     Integer.parseInt(fields[0]),
                     fields[1]
             );
-            addPointOfInterest(poi);
-            loadedPOIs.put(poi.getPoiId(), poi);
+            addPointOfInterest(builder, loadedPOIs, poi);
 
             ++countPOIs;
         }
@@ -88,7 +411,7 @@ public class MapManager {
         return loadedPOIs;
     }
     
-    private void loadMapConnections(Scanner scanner, Map<Integer, PointOfInterest> loadedPOIs) throws MapManagerException {
+    private void loadMapConnections(Scanner scanner, Map<Integer, PointOfInterest> loadedPOIs, DiGraph.Builder<PointOfInterest, Connection> builder) throws MapManagerException {
         while (!scanner.hasNextInt()) {
             scanner.nextLine();
         }
@@ -125,7 +448,7 @@ public class MapManager {
             }
             int startPoiId = Integer.parseInt(fields[3]);
             int endPoiId = Integer.parseInt(fields[4]);
-            addConnection(loadedPOIs.get(startPoiId), loadedPOIs.get(endPoiId), con);
+            addConnection(builder, loadedPOIs.get(startPoiId), loadedPOIs.get(endPoiId), con);
 
             ++countConnections;
         }
@@ -135,20 +458,13 @@ public class MapManager {
     }
     
     public PointOfInterest getPointOfInterestById(int id) throws MapManagerException {
-        IVertex<PointOfInterest> find = null;
-        
-        for (IVertex<PointOfInterest> v : digraph.vertices()) {
-            if (v.element().getPoiId() == id) {
-                find = v;
-                break;
-            }
-        }
+        PointOfInterest find = getMapSnapshot().pointsOfInterest.get(id);
         
         if(find == null) {
             throw new MapManagerException("Point of interest with id (" + id + ") does not exist");
         }
         
-        return find.element();
+        return find;
     }
     
     /**
@@ -162,12 +478,7 @@ public class MapManager {
             throw new MapManagerException("Point of interest cannot be null");
         }
         
-        IVertex<PointOfInterest> find = null;
-        for (IVertex<PointOfInterest> v : digraph.vertices()) {
-            if( v.element().equals(poi)) { //equals was overriden in PointOfInterest!!
-                find = v;
-            }
-        }
+        IVertex<PointOfInterest> find = digraph.getVertexByElement(poi); //equals was overriden in PointOfInterest!!
         
         if( find == null) {
             throw new MapManagerException("Point of interest with id (" + poi.getPoiId() + ") does not exist");
@@ -176,33 +487,29 @@ public class MapManager {
         return find;
     }
     
-    private void addPointOfInterest(PointOfInterest poi) throws MapManagerException {
+    private void addPointOfInterest(DiGraph.Builder<PointOfInterest, Connection> builder, Map<Integer, PointOfInterest> loadedPOIs, PointOfInterest poi) throws MapManagerException {
         if( poi == null ) {
             throw new MapManagerException("Point of interest cannot be null");
         }
         
-        try {
-            digraph.insertVertex(poi);
-        } catch (InvalidVertexException e) {
+        if (loadedPOIs.putIfAbsent(poi.getPoiId(), poi) != null) {
             throw new MapManagerException("Point of interest with id (" + poi.getPoiId() + ") already exists");
         }
+        
+        builder.addVertex(poi);
     }
     
-    private void addConnection(PointOfInterest poi1, PointOfInterest poi2, Connection connection) throws MapManagerException {
+    private void addConnection(DiGraph.Builder<PointOfInterest, Connection> builder, PointOfInterest poi1, PointOfInterest poi2, Connection connection) throws MapManagerException {
         if( connection == null) {
             throw new MapManagerException("Connection is null");
         }
+        if( poi1 == null || poi2 == null) {
+            throw new MapManagerException("Point of interest cannot be null");
+        }
         
-        IVertex<PointOfInterest> p1 = checkPointOfInterest(poi1);
-        IVertex<PointOfInterest> p2 = checkPointOfInterest(poi2);
-        
-        try {
-            digraph.insertEdge(p1, p2, connection);
-            if (connection instanceof ConnectionPath) {
-                digraph.insertEdge(p2, p1, connection);
-            }
-        } catch (InvalidVertexException e) {
-            throw new MapManagerException("The connection (" + connection.getConnectionName() + ") already exists");
+        builder.addEdge(poi1, poi2, connection);
+        if (connection instanceof ConnectionPath) {
+            builder.addEdge(poi2, poi1, connection);
         }
     }
     
@@ -212,15 +519,8 @@ public class MapManager {
         IVertex<PointOfInterest> p1 = checkPointOfInterest(poi1);
         IVertex<PointOfInterest> p2 = checkPointOfInterest(poi2);
         
-        if (digraph.areAdjacent(p1, p2)) {
-            for (IEdge<Connection, PointOfInterest> e1 : digraph.accedentEdges(p1)) {
-                for (IEdge<Connection, PointOfInterest> e2 : digraph.incidentEdges(p2)) {
-                    if (e1 == e2) {
-                        connectionList.add(e1.element());
-                        break;
-                    }
-                }
-            }
+        for (IEdge<Connection, PointOfInterest> edge : digraph.edgesBetween(p1, p2)) {
+            connectionList.add(edge.element());
         }
         
         return connectionList;
@@ -258,4 +558,69 @@ public class MapManager {
         }
     }
     
+    /**
+     * Data derived from one version of the digraph, published as a whole so
+     * readers never mix data of different versions
+     */
+    private static class MapSnapshot {
+        
+        private final long version;
+        private final CompactDiGraph<PointOfInterest, Connection> compact;
+        private final Map<Integer, PointOfInterest> pointsOfInterest;
+        private final Map<PathsKey, PathStrategyAllPairs> allPairsPaths;
+        private final Map<ICriteriaStrategy, Landmarks> landmarks;
+        private final Map<PathsKey, ContractionHierarchy> contractionHierarchies;
+        private final Map<ICriteriaStrategy, double[]> edgeWeights;
+        private volatile List<PointOfInterest> unreachableByBicycle;
+        private volatile IntDiGraph intDiGraph;
+        
+        private MapSnapshot(IDiGraph<PointOfInterest, Connection> source) {
+            this.version = source.version();
+            this.compact = new CompactDiGraph<>(source, Connection::getNavigability);
+            this.pointsOfInterest = new HashMap<>();
+            for (IVertex<PointOfInterest> vertex : source.vertices()) {
+                this.pointsOfInterest.put(vertex.element().getPoiId(), vertex.element());
+            }
+            this.allPairsPaths = new ConcurrentHashMap<>();
+            this.landmarks = new ConcurrentHashMap<>();
+            this.contractionHierarchies = new ConcurrentHashMap<>();
+            this.edgeWeights = new ConcurrentHashMap<>();
+            this.unreachableByBicycle = null;
+            this.intDiGraph = null;
+        }
+        
+    }
+    
+    /**
+     * Key of the paths data of a criteria and navigability
+     */
+    private static class PathsKey {
+        
+        private final ICriteriaStrategy criteria;
+        private final boolean navigability;
+        
+        private PathsKey(ICriteriaStrategy criteria, boolean navigability) {
+            this.criteria = criteria;
+            this.navigability = navigability;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            PathsKey other = (PathsKey) obj;
+            return this.navigability == other.navigability && this.criteria.equals(other.criteria);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.criteria, this.navigability);
+        }
+        
+    }
+    
 }
@@ -0,0 +1,175 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Class used to find every Pareto optimal path, by cost and distance, from one
+ * vertex to every other with a label-setting search.
+ *
+ * Each label is a path to a vertex with its cost and distance. Labels are
+ * settled in lexicographic order of cost and distance, so a settled label is
+ * never dominated by a later one, and a label is dropped as soon as a settled
+ * label of its vertex is at least as good in both.
+ */
+class ParetoLabels {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final CompactDiGraph<PointOfInterest, Connection> graph;
+    private final int origin;
+
+    private int[] vertices;
+    private int[] edges;
+    private int[] parents;
+    private double[] costs;
+    private double[] distances;
+    private int numLabels;
+
+    // settled[v][0..numSettled[v]) are the labels of v, by increasing cost
+    private final int[][] settled;
+    private final int[] numSettled;
+
+    /**
+     * Creates the labels of every path from a vertex
+     * @param graph compact digraph to search
+     * @param costs cost of each edge id
+     * @param distances distance of each edge id
+     * @param navigability true if only navigable edges can be used
+     * @param origin origin vertex id
+     */
+    ParetoLabels(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] costs,
+            double[] distances,
+            boolean navigability,
+            int origin) {
+        this.graph = graph;
+        this.origin = origin;
+        this.vertices = new int[INITIAL_CAPACITY];
+        this.edges = new int[INITIAL_CAPACITY];
+        this.parents = new int[INITIAL_CAPACITY];
+        this.costs = new double[INITIAL_CAPACITY];
+        this.distances = new double[INITIAL_CAPACITY];
+        this.numLabels = 0;
+        this.settled = new int[graph.numVertices()][];
+        this.numSettled = new int[graph.numVertices()];
+
+        search(costs, distances, navigability);
+    }
+
+    private void search(double[] edgeCosts, double[] edgeDistances, boolean navigability) {
+        PriorityQueue<Integer> unsettled = new PriorityQueue<>((a, b) -> {
+            int order = Double.compare(this.costs[a], this.costs[b]);
+            return order != 0 ? order : Double.compare(this.distances[a], this.distances[b]);
+        });
+        unsettled.add(addLabel(this.origin, -1, -1, 0.0, 0.0));
+
+        while (!unsettled.isEmpty()) {
+            int label = unsettled.poll();
+            int vertex = this.vertices[label];
+            if (isDominated(vertex, this.costs[label], this.distances[label])) {
+                continue;
+            }
+            settle(vertex, label);
+
+            for (int index = this.graph.outboundStart(vertex, navigability); index < this.graph.outboundEnd(vertex, navigability); ++index) {
+                int edge = this.graph.outboundEdge(index, navigability);
+                int opposite = this.graph.target(edge);
+                double cost = this.costs[label] + edgeCosts[edge];
+                double distance = this.distances[label] + edgeDistances[edge];
+                if (!isDominated(opposite, cost, distance)) {
+                    unsettled.add(addLabel(opposite, edge, label, cost, distance));
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to know if a settled label of a vertex is at least as good as a
+     * cost and distance, in both
+     */
+    private boolean isDominated(int vertex, double cost, double distance) {
+        for (int i = 0; i < this.numSettled[vertex]; ++i) {
+            int label = this.settled[vertex][i];
+            if (this.costs[label] <= cost && this.distances[label] <= distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void settle(int vertex, int label) {
+        if (this.settled[vertex] == null) {
+            this.settled[vertex] = new int[2];
+        } else if (this.numSettled[vertex] == this.settled[vertex].length) {
+            this.settled[vertex] = Arrays.copyOf(this.settled[vertex], this.numSettled[vertex] * 2);
+        }
+        this.settled[vertex][this.numSettled[vertex]++] = label;
+    }
+
+    private int addLabel(int vertex, int edge, int parent, double cost, double distance) {
+        if (this.numLabels == this.vertices.length) {
+            int capacity = this.numLabels * 2;
+            this.vertices = Arrays.copyOf(this.vertices, capacity);
+            this.edges = Arrays.copyOf(this.edges, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.costs = Arrays.copyOf(this.costs, capacity);
+            this.distances = Arrays.copyOf(this.distances, capacity);
+        }
+        this.vertices[this.numLabels] = vertex;
+        this.edges[this.numLabels] = edge;
+        this.parents[this.numLabels] = parent;
+        this.costs[this.numLabels] = cost;
+        this.distances[this.numLabels] = distance;
+        return this.numLabels++;
+    }
+
+    /**
+     * Method to get the costs of the Pareto optimal paths to a vertex
+     * @param destination destination vertex id
+     * @return cost of each path, increasing, empty if there is no path
+     */
+    double[] getCosts(int destination) {
+        double[] result = new double[this.numSettled[destination]];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = this.costs[this.settled[destination][i]];
+        }
+        return result;
+    }
+
+    /**
+     * Method to get the distances of the Pareto optimal paths to a vertex
+     * @param destination destination vertex id
+     * @return distance of each path, in the order of getCosts
+     */
+    double[] getDistances(int destination) {
+        double[] result = new double[this.numSettled[destination]];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = this.distances[this.settled[destination][i]];
+        }
+        return result;
+    }
+
+    /**
+     * Method to get the edges of one Pareto optimal path to a vertex
+     * @param destination destination vertex id
+     * @param option index of the path, in the order of getCosts
+     * @return edge ids in path order
+     */
+    int[] getPath(int destination, int option) {
+        int first = this.settled[destination][option];
+
+        int length = 0;
+        for (int label = first; this.parents[label] != -1; label = this.parents[label]) {
+            ++length;
+        }
+
+        int[] path = new int[length];
+        for (int label = first; this.parents[label] != -1; label = this.parents[label]) {
+            path[--length] = this.edges[label];
+        }
+        return path;
+    }
+
+}
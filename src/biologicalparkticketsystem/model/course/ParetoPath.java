@@ -0,0 +1,105 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class to save data of a course that no other course for the same selection
+ * beats in both cost and distance
+ */
+public class ParetoPath {
+    
+    private final boolean navigability;
+    private final int costEuros;
+    private final int distance;
+    private final List<PointOfInterest> pointsOfInterest;
+    private final List<Connection> connections;
+    private final List<PointOfInterest> mustVisit;
+    private final ITourSolver solver;
+    
+    /**
+     * Creates the path
+     * @param navigability true if user is on bike
+     * @param costEuros total cost of the path, in euros
+     * @param distance total distance of the path, in metres
+     * @param pointsOfInterest points of interest in visiting order
+     * @param connections connections in visiting order
+     * @param mustVisit points of interest which must be visited
+     * @param solver solver that chose the order of the path
+     */
+    public ParetoPath(boolean navigability,
+            int costEuros,
+            int distance,
+            List<PointOfInterest> pointsOfInterest,
+            List<Connection> connections,
+            List<PointOfInterest> mustVisit,
+            ITourSolver solver) {
+        this.navigability = navigability;
+        this.costEuros = costEuros;
+        this.distance = distance;
+        this.pointsOfInterest = Collections.unmodifiableList(new ArrayList<>(pointsOfInterest));
+        this.connections = Collections.unmodifiableList(new ArrayList<>(connections));
+        this.mustVisit = Collections.unmodifiableList(new ArrayList<>(mustVisit));
+        this.solver = solver;
+    }
+    
+    public boolean getNavigability() {
+        return this.navigability;
+    }
+    
+    public int getCostEuros() {
+        return this.costEuros;
+    }
+    
+    public int getDistance() {
+        return this.distance;
+    }
+    
+    public List<PointOfInterest> getPointsOfInterest() {
+        return this.pointsOfInterest;
+    }
+    
+    public List<Connection> getConnections() {
+        return this.connections;
+    }
+    
+    public List<PointOfInterest> getMustVisit() {
+        return this.mustVisit;
+    }
+    
+    public ITourSolver getSolver() {
+        return this.solver;
+    }
+    
+    /**
+     * Method to create the calculated path of this course, with its cost
+     * measured by a criteria
+     * @param criteria criteria strategy used to measure the cost
+     * @return immutable calculated path
+     */
+    public CalculatedPath getCalculatedPath(ICriteriaStrategy criteria) {
+        double cost = 0.0;
+        for (Connection connection : this.connections) {
+            cost += criteria.getEdgeWeight(connection);
+        }
+        return new CalculatedPath(criteria, this.navigability, (int) Math.round(cost),
+                this.pointsOfInterest, this.connections, this.mustVisit, this.solver);
+    }
+    
+    /**
+     * Method to know if this path is at least as good as another in both cost
+     * and distance
+     * @param other path to compare
+     * @return true if this path dominates the other
+     */
+    public boolean dominates(ParetoPath other) {
+        return this.costEuros <= other.costEuros && this.distance <= other.distance;
+    }
+    
+    @Override
+    public String toString() {
+        return this.costEuros + " € / " + this.distance + " m";
+    }
+    
+}
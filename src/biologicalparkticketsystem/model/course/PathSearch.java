@@ -0,0 +1,38 @@
+package biologicalparkticketsystem.model.course;
+
+/**
+ * Search used to find the minimum paths between the points of a course
+ */
+public enum PathSearch {
+    
+    /**
+     * Chosen from the map size and the number of points: the paths
+     * calculated between every pair of points, the contraction hierarchies of
+     * very large maps, A* with landmarks for small selections or Dijkstra
+     * otherwise
+     */
+    AUTOMATIC,
+    
+    /**
+     * Full Dijkstra from each point
+     */
+    DIJKSTRA,
+    
+    /**
+     * Bidirectional Dijkstra for each pair of points
+     */
+    BIDIRECTIONAL,
+    
+    /**
+     * A* with landmarks for each pair of points, built on the request if the
+     * map does not keep them
+     */
+    LANDMARKS,
+    
+    /**
+     * Search over a contraction hierarchy, built on the first request if the
+     * map did not build it when loaded
+     */
+    CONTRACTION
+    
+}
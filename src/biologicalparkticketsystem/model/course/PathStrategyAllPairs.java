@@ -0,0 +1,82 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.stream.IntStream;
+
+/**
+ * Class used to answer minimum path queries from precalculated costs between
+ * every pair of vertices, so a query only reads the matrices.
+ *
+ * Both matrices are flattened in primitive arrays indexed by
+ * origin * numVertices + destination. The path matrix keeps, for each pair,
+ * the last edge of the minimum path, so a path is rebuilt backwards from the
+ * destination over the minimum paths tree of the origin. Keeping the trees
+ * instead of the first edge of each path keeps the rebuilt paths consistent
+ * when several paths have the same cost, which is common with zero weights.
+ *
+ * Instances are immutable once built and can be shared between threads.
+ */
+public class PathStrategyAllPairs implements IPathStrategy {
+    
+    private final CompactDiGraph<PointOfInterest, Connection> graph;
+    private final int numVertices;
+    private final double[] costs;
+    private final int[] previousEdges;
+    
+    /**
+     * Creates the strategy, calculating the minimum paths from every vertex
+     * @param graph compact digraph to search
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     */
+    public PathStrategyAllPairs(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability) {
+        this.graph = graph;
+        this.numVertices = graph.numVertices();
+        this.costs = new double[this.numVertices * this.numVertices];
+        this.previousEdges = new int[this.numVertices * this.numVertices];
+        
+        // Each origin fills its own rows, so origins are calculated in parallel
+        IntStream.range(0, this.numVertices).parallel().forEach(origin -> {
+            CalculatedDijkstra calculatedDijkstra = PathStrategyDijkstra.dijkstraAlgorithm(graph, weights, navigability, origin);
+            int row = origin * this.numVertices;
+            double[] originCosts = calculatedDijkstra.getCosts();
+            for (int destination = 0; destination < this.numVertices; ++destination) {
+                double cost = originCosts[destination];
+                this.costs[row + destination] = cost == Double.MAX_VALUE ? Double.POSITIVE_INFINITY : cost;
+            }
+            System.arraycopy(calculatedDijkstra.getEdges(), 0, this.previousEdges, row, this.numVertices);
+        });
+    }
+    
+    @Override
+    public double getCost(int origin, int destination) {
+        return this.costs[origin * this.numVertices + destination];
+    }
+    
+    @Override
+    public int[] getPath(int origin, int destination) {
+        int row = origin * this.numVertices;
+        
+        int length = 0;
+        for (int vertex = destination; vertex != origin; vertex = this.graph.source(this.previousEdges[row + vertex])) {
+            if (this.previousEdges[row + vertex] == -1) {
+                return null;
+            }
+            ++length;
+        }
+        
+        int[] path = new int[length];
+        for (int vertex = destination; vertex != origin; vertex = this.graph.source(this.previousEdges[row + vertex])) {
+            path[--length] = this.previousEdges[row + vertex];
+        }
+        return path;
+    }
+    
+    @Override
+    public String toString() {
+        return "All pairs";
+    }
+    
+}
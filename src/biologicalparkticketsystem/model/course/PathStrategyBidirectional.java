@@ -0,0 +1,209 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class used to find minimum paths between pairs of vertices with a
+ * bidirectional Dijkstra.
+ *
+ * One search goes forward from the origin over the outbound edges and the
+ * other goes backward from the destination over the inbound edges, so one-way
+ * connections are only crossed in their own direction. The side with the
+ * lowest cost to settle advances each step, and the search stops when the
+ * costs of both sides add up to the best path found where they met. Results
+ * are kept for the following queries of the same pair.
+ */
+public class PathStrategyBidirectional implements IPathStrategy {
+    
+    private final CompactDiGraph<PointOfInterest, Connection> graph;
+    private final double[] weights;
+    private final boolean navigability;
+    private final Map<Long, CalculatedLeg> calculatedLegs;
+    private final Side forward;
+    private final Side backward;
+    private int stamp;
+    private long settledVertices;
+    
+    /**
+     * Creates the strategy
+     * @param graph compact digraph to search
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     */
+    public PathStrategyBidirectional(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability) {
+        this.graph = graph;
+        this.weights = weights;
+        this.navigability = navigability;
+        this.calculatedLegs = new HashMap<>();
+        this.forward = new Side(graph.numVertices());
+        this.backward = new Side(graph.numVertices());
+        this.stamp = 0;
+        this.settledVertices = 0;
+    }
+    
+    @Override
+    public double getCost(int origin, int destination) {
+        return getCalculatedLeg(origin, destination).cost;
+    }
+    
+    @Override
+    public int[] getPath(int origin, int destination) {
+        int[] path = getCalculatedLeg(origin, destination).path;
+        return path == null ? null : path.clone();
+    }
+    
+    /**
+     * Method to get the number of vertices settled by every search so far,
+     * counting both sides
+     * @return settled vertices
+     */
+    public long getSettledVertices() {
+        return this.settledVertices;
+    }
+    
+    private CalculatedLeg getCalculatedLeg(int origin, int destination) {
+        long key = (long) origin * this.graph.numVertices() + destination;
+        CalculatedLeg calculatedLeg = this.calculatedLegs.get(key);
+        if (calculatedLeg == null) {
+            calculatedLeg = bidirectionalDijkstraAlgorithm(origin, destination);
+            this.calculatedLegs.put(key, calculatedLeg);
+        }
+        return calculatedLeg;
+    }
+    
+    private CalculatedLeg bidirectionalDijkstraAlgorithm(int origin, int destination) {
+        ++this.stamp;
+        this.forward.start(origin, this.stamp);
+        this.backward.start(destination, this.stamp);
+        
+        double bestCost = origin == destination ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = origin == destination ? origin : -1;
+        
+        while (!this.forward.unvisited.isEmpty() && !this.backward.unvisited.isEmpty()
+                && this.forward.unvisited.peekPriority() + this.backward.unvisited.peekPriority() < bestCost) {
+            
+            boolean isForward = this.forward.unvisited.peekPriority() <= this.backward.unvisited.peekPriority();
+            Side side = isForward ? this.forward : this.backward;
+            Side other = isForward ? this.backward : this.forward;
+            
+            int lowerCostVertex = side.unvisited.poll();
+            side.visited[lowerCostVertex] = true;
+            ++this.settledVertices;
+            
+            int start = isForward ? this.graph.outboundStart(lowerCostVertex, this.navigability) : this.graph.inboundStart(lowerCostVertex, this.navigability);
+            int end = isForward ? this.graph.outboundEnd(lowerCostVertex, this.navigability) : this.graph.inboundEnd(lowerCostVertex, this.navigability);
+            for (int index = start; index < end; ++index) {
+                int edge = isForward ? this.graph.outboundEdge(index, this.navigability) : this.graph.inboundEdge(index, this.navigability);
+                int opposite = isForward ? this.graph.target(edge) : this.graph.source(edge);
+                double cost = side.costs[lowerCostVertex] + this.weights[edge];
+                if (side.improve(opposite, cost, edge, this.stamp)) {
+                    // Both sides reached the vertex, so there is a path through it
+                    if (other.stamps[opposite] == this.stamp && cost + other.costs[opposite] < bestCost) {
+                        bestCost = cost + other.costs[opposite];
+                        meeting = opposite;
+                    }
+                }
+            }
+        }
+        
+        if (meeting == -1) {
+            return new CalculatedLeg(Double.POSITIVE_INFINITY, null);
+        }
+        return new CalculatedLeg(bestCost, rebuildPath(origin, destination, meeting));
+    }
+    
+    private int[] rebuildPath(int origin, int destination, int meeting) {
+        int forwardLength = 0;
+        for (int vertex = meeting; vertex != origin; vertex = this.graph.source(this.forward.edges[vertex])) {
+            ++forwardLength;
+        }
+        int backwardLength = 0;
+        for (int vertex = meeting; vertex != destination; vertex = this.graph.target(this.backward.edges[vertex])) {
+            ++backwardLength;
+        }
+        
+        // The forward tree is walked from the meeting vertex back to the origin
+        int[] path = new int[forwardLength + backwardLength];
+        int position = forwardLength;
+        for (int vertex = meeting; vertex != origin; vertex = this.graph.source(this.forward.edges[vertex])) {
+            path[--position] = this.forward.edges[vertex];
+        }
+        position = forwardLength;
+        for (int vertex = meeting; vertex != destination; vertex = this.graph.target(this.backward.edges[vertex])) {
+            path[position++] = this.backward.edges[vertex];
+        }
+        return path;
+    }
+    
+    @Override
+    public String toString() {
+        return "Bidirectional Dijkstra";
+    }
+    
+    /**
+     * Search state of one side, reused between searches and reset through the
+     * stamps
+     */
+    private static class Side {
+        
+        private final double[] costs;
+        private final int[] edges;
+        private final int[] stamps;
+        private final boolean[] visited;
+        private final IndexedMinHeap unvisited;
+        
+        private Side(int numVertices) {
+            this.costs = new double[numVertices];
+            this.edges = new int[numVertices];
+            this.stamps = new int[numVertices];
+            this.visited = new boolean[numVertices];
+            this.unvisited = new IndexedMinHeap(numVertices);
+        }
+        
+        private void start(int vertex, int stamp) {
+            this.unvisited.clear();
+            this.stamps[vertex] = stamp;
+            this.visited[vertex] = false;
+            this.costs[vertex] = 0.0;
+            this.edges[vertex] = -1;
+            this.unvisited.push(vertex, 0.0);
+        }
+        
+        /**
+         * Method to lower the cost of a vertex if the new cost is lower
+         * @return true if the cost was lowered
+         */
+        private boolean improve(int vertex, double cost, int edge, int stamp) {
+            if (this.stamps[vertex] == stamp && (this.visited[vertex] || cost >= this.costs[vertex])) {
+                return false;
+            }
+            this.stamps[vertex] = stamp;
+            this.visited[vertex] = false;
+            this.costs[vertex] = cost;
+            this.edges[vertex] = edge;
+            this.unvisited.push(vertex, cost);
+            return true;
+        }
+        
+    }
+    
+    /**
+     * Cost and path found between a pair of vertices
+     */
+    private static class CalculatedLeg {
+        
+        private final double cost;
+        private final int[] path;
+        
+        private CalculatedLeg(double cost, int[] path) {
+            this.cost = cost;
+            this.path = path;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,210 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class used to find minimum paths between pairs of vertices over a
+ * contraction hierarchy.
+ *
+ * A forward search from the origin and a backward search from the destination
+ * only follow arcs to higher ranks, so each settles a small part of the map.
+ * Each side stops once its lowest cost reaches the best path found where the
+ * sides met, and the arcs of that path are unpacked back to edge ids. Results
+ * are kept for the following queries of the same pair.
+ */
+public class PathStrategyContraction implements IPathStrategy {
+    
+    private final ContractionHierarchy hierarchy;
+    private final Map<Long, CalculatedLeg> calculatedLegs;
+    private final Side forward;
+    private final Side backward;
+    private int stamp;
+    private long settledVertices;
+    
+    /**
+     * Creates the strategy
+     * @param hierarchy contraction hierarchy to search
+     */
+    public PathStrategyContraction(ContractionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        this.calculatedLegs = new HashMap<>();
+        this.forward = new Side(hierarchy.getNumVertices());
+        this.backward = new Side(hierarchy.getNumVertices());
+        this.stamp = 0;
+        this.settledVertices = 0;
+    }
+    
+    @Override
+    public double getCost(int origin, int destination) {
+        return getCalculatedLeg(origin, destination).cost;
+    }
+    
+    @Override
+    public int[] getPath(int origin, int destination) {
+        int[] path = getCalculatedLeg(origin, destination).path;
+        return path == null ? null : path.clone();
+    }
+    
+    /**
+     * Method to get the number of vertices settled by every search so far,
+     * counting both sides
+     * @return settled vertices
+     */
+    public long getSettledVertices() {
+        return this.settledVertices;
+    }
+    
+    private CalculatedLeg getCalculatedLeg(int origin, int destination) {
+        long key = (long) origin * this.hierarchy.getNumVertices() + destination;
+        CalculatedLeg calculatedLeg = this.calculatedLegs.get(key);
+        if (calculatedLeg == null) {
+            calculatedLeg = hierarchyAlgorithm(origin, destination);
+            this.calculatedLegs.put(key, calculatedLeg);
+        }
+        return calculatedLeg;
+    }
+    
+    private CalculatedLeg hierarchyAlgorithm(int origin, int destination) {
+        ++this.stamp;
+        this.forward.start(origin, this.stamp);
+        this.backward.start(destination, this.stamp);
+        
+        double bestCost = origin == destination ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = origin == destination ? origin : -1;
+        
+        while (true) {
+            boolean forwardOpen = !this.forward.unvisited.isEmpty() && this.forward.unvisited.peekPriority() < bestCost;
+            boolean backwardOpen = !this.backward.unvisited.isEmpty() && this.backward.unvisited.peekPriority() < bestCost;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            
+            boolean isForward = forwardOpen
+                    && (!backwardOpen || this.forward.unvisited.peekPriority() <= this.backward.unvisited.peekPriority());
+            Side side = isForward ? this.forward : this.backward;
+            Side other = isForward ? this.backward : this.forward;
+            
+            int lowerCostVertex = side.unvisited.poll();
+            side.visited[lowerCostVertex] = true;
+            ++this.settledVertices;
+            
+            int start = isForward ? this.hierarchy.upStart(lowerCostVertex) : this.hierarchy.downStart(lowerCostVertex);
+            int end = isForward ? this.hierarchy.upEnd(lowerCostVertex) : this.hierarchy.downEnd(lowerCostVertex);
+            for (int index = start; index < end; ++index) {
+                int arc = isForward ? this.hierarchy.upArc(index) : this.hierarchy.downArc(index);
+                int opposite = isForward ? this.hierarchy.arcTarget(arc) : this.hierarchy.arcSource(arc);
+                double cost = side.costs[lowerCostVertex] + this.hierarchy.arcWeight(arc);
+                if (side.improve(opposite, cost, arc, this.stamp)) {
+                    // Both sides reached the vertex, so there is a path through it
+                    if (other.stamps[opposite] == this.stamp && cost + other.costs[opposite] < bestCost) {
+                        bestCost = cost + other.costs[opposite];
+                        meeting = opposite;
+                    }
+                }
+            }
+        }
+        
+        if (meeting == -1) {
+            return new CalculatedLeg(Double.POSITIVE_INFINITY, null);
+        }
+        return new CalculatedLeg(bestCost, unpackPath(origin, destination, meeting));
+    }
+    
+    private int[] unpackPath(int origin, int destination, int meeting) {
+        int forwardLength = 0;
+        int forwardArcs = 0;
+        for (int vertex = meeting; vertex != origin; vertex = this.hierarchy.arcSource(this.forward.arcs[vertex])) {
+            forwardLength += this.hierarchy.arcLength(this.forward.arcs[vertex]);
+            ++forwardArcs;
+        }
+        int length = forwardLength;
+        for (int vertex = meeting; vertex != destination; vertex = this.hierarchy.arcTarget(this.backward.arcs[vertex])) {
+            length += this.hierarchy.arcLength(this.backward.arcs[vertex]);
+        }
+        
+        // The forward arcs are found from the meeting vertex back to the origin
+        int[] arcs = new int[forwardArcs];
+        for (int vertex = meeting; vertex != origin; vertex = this.hierarchy.arcSource(this.forward.arcs[vertex])) {
+            arcs[--forwardArcs] = this.forward.arcs[vertex];
+        }
+        
+        int[] path = new int[length];
+        int position = 0;
+        for (int arc : arcs) {
+            position = this.hierarchy.unpack(arc, path, position);
+        }
+        for (int vertex = meeting; vertex != destination; vertex = this.hierarchy.arcTarget(this.backward.arcs[vertex])) {
+            position = this.hierarchy.unpack(this.backward.arcs[vertex], path, position);
+        }
+        return path;
+    }
+    
+    @Override
+    public String toString() {
+        return "Contraction hierarchy";
+    }
+    
+    /**
+     * Search state of one side, reused between searches and reset through the
+     * stamps
+     */
+    private static class Side {
+        
+        private final double[] costs;
+        private final int[] arcs;
+        private final int[] stamps;
+        private final boolean[] visited;
+        private final IndexedMinHeap unvisited;
+        
+        private Side(int numVertices) {
+            this.costs = new double[numVertices];
+            this.arcs = new int[numVertices];
+            this.stamps = new int[numVertices];
+            this.visited = new boolean[numVertices];
+            this.unvisited = new IndexedMinHeap(numVertices);
+        }
+        
+        private void start(int vertex, int stamp) {
+            this.unvisited.clear();
+            this.stamps[vertex] = stamp;
+            this.visited[vertex] = false;
+            this.costs[vertex] = 0.0;
+            this.arcs[vertex] = -1;
+            this.unvisited.push(vertex, 0.0);
+        }
+        
+        /**
+         * Method to lower the cost of a vertex if the new cost is lower
+         * @return true if the cost was lowered
+         */
+        private boolean improve(int vertex, double cost, int arc, int stamp) {
+            if (this.stamps[vertex] == stamp && (this.visited[vertex] || cost >= this.costs[vertex])) {
+                return false;
+            }
+            this.stamps[vertex] = stamp;
+            this.visited[vertex] = false;
+            this.costs[vertex] = cost;
+            this.arcs[vertex] = arc;
+            this.unvisited.push(vertex, cost);
+            return true;
+        }
+        
+    }
+    
+    /**
+     * Cost and path found between a pair of vertices
+     */
+    private static class CalculatedLeg {
+        
+        private final double cost;
+        private final int[] path;
+        
+        private CalculatedLeg(double cost, int[] path) {
+            this.cost = cost;
+            this.path = path;
+        }
+        
+    }
+    
+}
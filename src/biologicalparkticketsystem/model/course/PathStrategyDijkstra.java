@@ -0,0 +1,191 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class used to find minimum paths with the Dijkstra algorithm, calculated
+ * once for each origin asked for and kept for the following queries, up to a
+ * maximum number of origins, the least recently used being discarded. The
+ * strategy is reused between calculations, so the searches are synchronized
+ */
+public class PathStrategyDijkstra implements IPathStrategy {
+    
+    private final CompactDiGraph<PointOfInterest, Connection> graph;
+    private final double[] weights;
+    private final boolean navigability;
+    private final int maxOrigins;
+    private final Map<Integer, CalculatedDijkstra> calculatedDijkstras;
+    
+    /**
+     * Creates the strategy
+     * @param graph compact digraph to search
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     * @param maxOrigins maximum number of origins whose paths are kept
+     */
+    public PathStrategyDijkstra(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability,
+            int maxOrigins) {
+        this.graph = graph;
+        this.weights = weights;
+        this.navigability = navigability;
+        this.maxOrigins = maxOrigins;
+        this.calculatedDijkstras = new LinkedHashMap<Integer, CalculatedDijkstra>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CalculatedDijkstra> eldest) {
+                return size() > PathStrategyDijkstra.this.maxOrigins;
+            }
+        };
+    }
+    
+    /**
+     * Method to know if the strategy searches a compact digraph
+     * @param graph compact digraph
+     * @return true if it is the digraph of the strategy
+     */
+    public boolean isFor(CompactDiGraph<PointOfInterest, Connection> graph) {
+        return this.graph == graph;
+    }
+    
+    @Override
+    public double getCost(int origin, int destination) {
+        double cost = getCalculatedDijkstra(origin).getCosts()[destination];
+        return cost == Double.MAX_VALUE ? Double.POSITIVE_INFINITY : cost;
+    }
+    
+    @Override
+    public int[] getPath(int origin, int destination) {
+        int[] edges = getCalculatedDijkstra(origin).getEdges();
+        
+        int length = 0;
+        for (int vertex = destination; vertex != origin; vertex = this.graph.source(edges[vertex])) {
+            if (edges[vertex] == -1) {
+                return null;
+            }
+            ++length;
+        }
+        
+        int[] path = new int[length];
+        for (int vertex = destination; vertex != origin; vertex = this.graph.source(edges[vertex])) {
+            path[--length] = edges[vertex];
+        }
+        return path;
+    }
+    
+    private synchronized CalculatedDijkstra getCalculatedDijkstra(int origin) {
+        CalculatedDijkstra calculatedDijkstra = this.calculatedDijkstras.get(origin);
+        if (calculatedDijkstra == null) {
+            calculatedDijkstra = dijkstraAlgorithm(this.graph, this.weights, this.navigability, origin);
+            this.calculatedDijkstras.put(origin, calculatedDijkstra);
+        }
+        return calculatedDijkstra;
+    }
+    
+    /**
+     * Method to calculate the minimum paths from one vertex to every other
+     * @param graph compact digraph to search
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     * @param orig origin vertex id
+     * @return costs and edges used to reach each vertex
+     */
+    static CalculatedDijkstra dijkstraAlgorithm(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability,
+            int orig) {
+        
+        double[] costs = new double[graph.numVertices()];
+        int[] edges = new int[graph.numVertices()];
+        boolean[] visited = new boolean[graph.numVertices()];
+        
+        Arrays.fill(costs, Double.MAX_VALUE);
+        Arrays.fill(edges, -1);
+        costs[orig] = 0.0;
+        
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.numVertices());
+        unvisited.push(orig, 0.0);
+        
+        while (!unvisited.isEmpty()) {
+            int lowerCostVertex = unvisited.poll();
+            visited[lowerCostVertex] = true;
+            for (int index = graph.outboundStart(lowerCostVertex, navigability); index < graph.outboundEnd(lowerCostVertex, navigability); ++index) {
+                int edge = graph.outboundEdge(index, navigability);
+                int opposite = graph.target(edge);
+                if (!visited[opposite]) {
+                    double sourceCost = costs[lowerCostVertex];
+                    if (sourceCost + weights[edge] < costs[opposite]) {
+                        costs[opposite] = sourceCost + weights[edge];
+                        edges[opposite] = edge;
+                        unvisited.push(opposite, costs[opposite]);
+                    }
+                }
+            }
+        }
+        
+        CalculatedDijkstra calculatedDijkstra = new CalculatedDijkstra();
+        calculatedDijkstra.setCosts(costs);
+        calculatedDijkstra.setEdges(edges);
+        
+        return calculatedDijkstra;
+    }
+    
+    /**
+     * Method to calculate the minimum paths from every vertex to one vertex,
+     * searching the inbound edges backwards
+     * @param graph compact digraph to search
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     * @param dest destination vertex id
+     * @return costs and edges used to leave each vertex towards the
+     * destination
+     */
+    static CalculatedDijkstra reverseDijkstraAlgorithm(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability,
+            int dest) {
+        
+        double[] costs = new double[graph.numVertices()];
+        int[] edges = new int[graph.numVertices()];
+        boolean[] visited = new boolean[graph.numVertices()];
+        
+        Arrays.fill(costs, Double.MAX_VALUE);
+        Arrays.fill(edges, -1);
+        costs[dest] = 0.0;
+        
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.numVertices());
+        unvisited.push(dest, 0.0);
+        
+        while (!unvisited.isEmpty()) {
+            int lowerCostVertex = unvisited.poll();
+            visited[lowerCostVertex] = true;
+            for (int index = graph.inboundStart(lowerCostVertex, navigability); index < graph.inboundEnd(lowerCostVertex, navigability); ++index) {
+                int edge = graph.inboundEdge(index, navigability);
+                int opposite = graph.source(edge);
+                if (!visited[opposite]) {
+                    double targetCost = costs[lowerCostVertex];
+                    if (targetCost + weights[edge] < costs[opposite]) {
+                        costs[opposite] = targetCost + weights[edge];
+                        edges[opposite] = edge;
+                        unvisited.push(opposite, costs[opposite]);
+                    }
+                }
+            }
+        }
+        
+        CalculatedDijkstra calculatedDijkstra = new CalculatedDijkstra();
+        calculatedDijkstra.setCosts(costs);
+        calculatedDijkstra.setEdges(edges);
+        
+        return calculatedDijkstra;
+    }
+    
+    @Override
+    public String toString() {
+        return "Dijkstra";
+    }
+    
+}
@@ -0,0 +1,167 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class used to find minimum paths between pairs of vertices with the A*
+ * algorithm, guided by the lower bounds of landmarks (ALT).
+ *
+ * Each search settles vertices in order of their cost plus the lower bound of
+ * their cost to the destination, and stops once the destination is settled,
+ * so it settles far fewer vertices than a full Dijkstra when only a few pairs
+ * are needed. Results are kept for the following queries of the same pair.
+ */
+public class PathStrategyLandmarks implements IPathStrategy {
+    
+    private final CompactDiGraph<PointOfInterest, Connection> graph;
+    private final double[] weights;
+    private final boolean navigability;
+    private final Landmarks landmarks;
+    private final Map<Long, CalculatedLeg> calculatedLegs;
+    
+    // Search state, reused between searches and reset through the stamps
+    private final double[] costs;
+    private final int[] edges;
+    private final int[] stamps;
+    private final boolean[] visited;
+    private final IndexedMinHeap unvisited;
+    private int stamp;
+    private long settledVertices;
+    
+    /**
+     * Creates the strategy
+     * @param graph compact digraph to search
+     * @param weights weight of each edge id
+     * @param navigability true if only navigable edges can be used
+     * @param landmarks landmarks calculated with the same weights
+     */
+    public PathStrategyLandmarks(CompactDiGraph<PointOfInterest, Connection> graph,
+            double[] weights,
+            boolean navigability,
+            Landmarks landmarks) {
+        this.graph = graph;
+        this.weights = weights;
+        this.navigability = navigability;
+        this.landmarks = landmarks;
+        this.calculatedLegs = new HashMap<>();
+        
+        this.costs = new double[graph.numVertices()];
+        this.edges = new int[graph.numVertices()];
+        this.stamps = new int[graph.numVertices()];
+        this.visited = new boolean[graph.numVertices()];
+        this.unvisited = new IndexedMinHeap(graph.numVertices());
+        this.stamp = 0;
+        this.settledVertices = 0;
+    }
+    
+    @Override
+    public double getCost(int origin, int destination) {
+        return getCalculatedLeg(origin, destination).cost;
+    }
+    
+    @Override
+    public int[] getPath(int origin, int destination) {
+        int[] path = getCalculatedLeg(origin, destination).path;
+        return path == null ? null : path.clone();
+    }
+    
+    /**
+     * Method to get the number of vertices settled by every search so far
+     * @return settled vertices
+     */
+    public long getSettledVertices() {
+        return this.settledVertices;
+    }
+    
+    private CalculatedLeg getCalculatedLeg(int origin, int destination) {
+        long key = (long) origin * this.graph.numVertices() + destination;
+        CalculatedLeg calculatedLeg = this.calculatedLegs.get(key);
+        if (calculatedLeg == null) {
+            calculatedLeg = aStarAlgorithm(origin, destination);
+            this.calculatedLegs.put(key, calculatedLeg);
+        }
+        return calculatedLeg;
+    }
+    
+    private CalculatedLeg aStarAlgorithm(int origin, int destination) {
+        ++this.stamp;
+        this.unvisited.clear();
+        
+        reach(origin, 0.0, -1);
+        if (this.landmarks.lowerBound(origin, destination) != Double.POSITIVE_INFINITY) {
+            this.unvisited.push(origin, this.landmarks.lowerBound(origin, destination));
+        }
+        
+        while (!this.unvisited.isEmpty()) {
+            int lowerCostVertex = this.unvisited.poll();
+            this.visited[lowerCostVertex] = true;
+            ++this.settledVertices;
+            if (lowerCostVertex == destination) {
+                return new CalculatedLeg(this.costs[destination], rebuildPath(origin, destination));
+            }
+            
+            for (int index = this.graph.outboundStart(lowerCostVertex, this.navigability); index < this.graph.outboundEnd(lowerCostVertex, this.navigability); ++index) {
+                int edge = this.graph.outboundEdge(index, this.navigability);
+                int opposite = this.graph.target(edge);
+                double cost = this.costs[lowerCostVertex] + this.weights[edge];
+                if (this.stamps[opposite] != this.stamp) {
+                    reach(opposite, cost, edge);
+                } else if (this.visited[opposite] || cost >= this.costs[opposite]) {
+                    continue;
+                } else {
+                    this.costs[opposite] = cost;
+                    this.edges[opposite] = edge;
+                }
+                double bound = this.landmarks.lowerBound(opposite, destination);
+                if (bound != Double.POSITIVE_INFINITY) {
+                    this.unvisited.push(opposite, cost + bound);
+                }
+            }
+        }
+        
+        return new CalculatedLeg(Double.POSITIVE_INFINITY, null);
+    }
+    
+    private void reach(int vertex, double cost, int edge) {
+        this.stamps[vertex] = this.stamp;
+        this.visited[vertex] = false;
+        this.costs[vertex] = cost;
+        this.edges[vertex] = edge;
+    }
+    
+    private int[] rebuildPath(int origin, int destination) {
+        int length = 0;
+        for (int vertex = destination; vertex != origin; vertex = this.graph.source(this.edges[vertex])) {
+            ++length;
+        }
+        
+        int[] path = new int[length];
+        for (int vertex = destination; vertex != origin; vertex = this.graph.source(this.edges[vertex])) {
+            path[--length] = this.edges[vertex];
+        }
+        return path;
+    }
+    
+    @Override
+    public String toString() {
+        return "A* (" + this.landmarks.getLandmarks().length + " landmarks)";
+    }
+    
+    /**
+     * Cost and path found between a pair of vertices
+     */
+    private static class CalculatedLeg {
+        
+        private final double cost;
+        private final int[] path;
+        
+        private CalculatedLeg(double cost, int[] path) {
+            this.cost = cost;
+            this.path = path;
+        }
+        
+    }
+    
+}
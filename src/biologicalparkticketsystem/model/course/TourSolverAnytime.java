@@ -0,0 +1,149 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Class used to find a course order that can be used at any time while it is
+ * still being improved. The first order is a nearest neighbour tour, found at
+ * once, which is then improved with 2-opt and Or-opt moves, solved exactly if
+ * the selection is small enough and otherwise perturbed with double bridge
+ * moves and improved again, until the deadline is reached.
+ */
+public class TourSolverAnytime implements ITourSolver {
+
+    private final ITourSolver exactSolver;
+    private final int exactMaxPoints;
+    private final long deadlineMillis;
+
+    /**
+     * Creates the solver
+     * @param exactSolver solver used to find the optimal order
+     * @param exactMaxPoints maximum number of points the exact solver is
+     * used for
+     * @param deadlineMillis time spent improving the order, in milliseconds
+     */
+    public TourSolverAnytime(ITourSolver exactSolver, int exactMaxPoints, long deadlineMillis) {
+        this.exactSolver = exactSolver;
+        this.exactMaxPoints = exactMaxPoints;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return this.deadlineMillis;
+    }
+
+    @Override
+    public int[] solve(double[][] costs) {
+        long deadline = System.nanoTime() + this.deadlineMillis * 1000000L;
+        return improve(costs, firstOrder(costs), deadline, order -> { });
+    }
+
+    /**
+     * Method to find the first order, a nearest neighbour tour
+     * @param costs matrix of minimum costs between points
+     * @return points 1 to costs.length - 1 in visiting order
+     */
+    int[] firstOrder(double[][] costs) {
+        return getOrder(TourSolverHeuristic.nearestNeighbourTour(costs));
+    }
+
+    /**
+     * Method to improve an order until the deadline is reached, the optimal
+     * order is found or the thread is interrupted
+     * @param costs matrix of minimum costs between points
+     * @param order points 1 to costs.length - 1 in visiting order
+     * @param deadline System.nanoTime at which the improvement stops
+     * @param improved receives every order cheaper than the previous one
+     * @return cheapest order found
+     */
+    int[] improve(double[][] costs, int[] order, long deadline, Consumer<int[]> improved) {
+        int[] best = new int[costs.length];
+        System.arraycopy(order, 0, best, 1, order.length);
+        double bestCost = tourCost(costs, best);
+
+        int[] tour = best.clone();
+        TourSolverHeuristic.improve(costs, tour, deadline);
+        double cost = tourCost(costs, tour);
+        if (cost < bestCost) {
+            best = tour;
+            bestCost = cost;
+            improved.accept(getOrder(best));
+        }
+
+        if (costs.length - 1 <= this.exactMaxPoints && System.nanoTime() < deadline) {
+            int[] exactOrder;
+            try {
+                exactOrder = this.exactSolver.solve(costs, progress -> {
+                    if (System.nanoTime() >= deadline) {
+                        throw new CancellationException("The deadline was reached.");
+                    }
+                });
+            } catch (CancellationException ex) {
+                // Reached the deadline or interrupted, so the best order so far is kept
+                return getOrder(best);
+            }
+
+            tour = new int[costs.length];
+            System.arraycopy(exactOrder, 0, tour, 1, exactOrder.length);
+            if (tourCost(costs, tour) < bestCost) {
+                best = tour;
+                improved.accept(getOrder(best));
+            }
+            return getOrder(best);
+        }
+
+        // Local search is exhaustive for fewer than three points
+        Random random = new Random();
+        while (costs.length > 3 && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            tour = best.clone();
+            doubleBridge(tour, random);
+            TourSolverHeuristic.improve(costs, tour, deadline);
+            cost = tourCost(costs, tour);
+            if (cost < bestCost) {
+                best = tour;
+                bestCost = cost;
+                improved.accept(getOrder(best));
+            }
+        }
+
+        return getOrder(best);
+    }
+
+    /**
+     * Method to swap two consecutive random segments of a tour, a move local
+     * search cannot easily undo
+     */
+    private static void doubleBridge(int[] tour, Random random) {
+        // tour[first..second) and tour[second..third) are swapped
+        int first = 1 + random.nextInt(tour.length - 2);
+        int second = first + 1 + random.nextInt(tour.length - first - 1);
+        int third = second + 1 + random.nextInt(tour.length - second);
+
+        int[] segment = new int[second - first];
+        System.arraycopy(tour, first, segment, 0, segment.length);
+        System.arraycopy(tour, second, tour, first, third - second);
+        System.arraycopy(segment, 0, tour, first + third - second, segment.length);
+    }
+
+    private static double tourCost(double[][] costs, int[] tour) {
+        double cost = 0.0;
+        for (int i = 0; i < tour.length; ++i) {
+            cost += costs[tour[i]][i + 1 < tour.length ? tour[i + 1] : tour[0]];
+        }
+        return cost;
+    }
+
+    private static int[] getOrder(int[] tour) {
+        int[] order = new int[tour.length - 1];
+        System.arraycopy(tour, 1, order, 0, order.length);
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "Anytime";
+    }
+
+}
@@ -0,0 +1,346 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Class used to search the course order with a parallel branch and bound over
+ * the orders of the points.
+ *
+ * The search is split in fork/join tasks on the first positions of the tour,
+ * and every task shares the best tour found so far through an atomic
+ * reference. A partial tour is abandoned as soon as its cost, plus the
+ * cheapest way to enter each point still to visit, reaches the best cost.
+ * The best cost starts as the cost of the tour found by a seed solver, and the
+ * search stops when the time budget runs out, returning the best tour found.
+ * Such a tour was not proved optimal, so it is a best effort.
+ *
+ * The tasks run on the common fork/join pool while the calling thread waits,
+ * reporting progress and stopping them when it is interrupted.
+ */
+public class TourSolverBranchAndBound implements ITourSolver {
+
+    private static final int SPLIT_DEPTH = 2;
+
+    /**
+     * Time between progress reports of the calling thread, in milliseconds
+     */
+    private static final long PROGRESS_MILLIS = 50;
+
+    private final ITourSolver seedSolver;
+    private final long timeBudgetMillis;
+    private final ITourSolver bestEffortSolver;
+
+    /**
+     * Creates the solver
+     * @param seedSolver solver used to find the initial best tour
+     * @param timeBudgetMillis maximum time spent searching, in milliseconds
+     */
+    public TourSolverBranchAndBound(ITourSolver seedSolver, long timeBudgetMillis) {
+        this.seedSolver = seedSolver;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.bestEffortSolver = new ITourSolver() {
+            @Override
+            public int[] solve(double[][] costs) {
+                return TourSolverBranchAndBound.this.solve(costs);
+            }
+
+            @Override
+            public String toString() {
+                return "Branch and bound (best effort)";
+            }
+        };
+    }
+
+    /**
+     * Method to get the solver that stands for the orders the time budget
+     * did not allow to prove optimal
+     * @return best effort solver
+     */
+    public ITourSolver getBestEffortSolver() {
+        return this.bestEffortSolver;
+    }
+
+    @Override
+    public int[] solve(double[][] costs) {
+        return search(costs, progress -> { }).getOrder();
+    }
+
+    @Override
+    public int[] solve(double[][] costs, DoubleConsumer progress) {
+        return search(costs, progress).getOrder();
+    }
+
+    /**
+     * Method to search the order, telling if it was proved optimal
+     * @param costs matrix of minimum costs between points
+     * @param progress receives the fraction of the time budget already used
+     * @return best order found
+     * @throws CancellationException if the thread was interrupted
+     */
+    Result search(double[][] costs, DoubleConsumer progress) {
+        long start = System.nanoTime();
+        int[] seed = this.seedSolver.solve(costs);
+
+        Search search = new Search(costs, start + this.timeBudgetMillis * 1000000L);
+        search.offer(seed, tourCost(costs, seed));
+
+        double remaining = search.minimumEntry[0];
+        for (int point = 1; point < costs.length; ++point) {
+            remaining += search.minimumEntry[point];
+        }
+        if (remaining == Double.POSITIVE_INFINITY) {
+            // Some point cannot be reached, so no order has a finite cost
+            return new Result(seed, true);
+        }
+
+        boolean[] visited = new boolean[costs.length];
+        visited[0] = true;
+        ForkJoinTask<Void> task = ForkJoinPool.commonPool().submit(
+                new BranchTask(search, new int[costs.length - 1], visited, 0, 0.0, remaining));
+        while (true) {
+            try {
+                task.get(PROGRESS_MILLIS, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException ex) {
+                progress.accept(Math.min(1.0, (System.nanoTime() - start) / (this.timeBudgetMillis * 1000000.0)));
+            } catch (InterruptedException ex) {
+                search.cancelled = true;
+                task.quietlyJoin();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("The course calculation was cancelled.");
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        return new Result(search.best.get().order, !search.expired);
+    }
+
+    /**
+     * Method to calculate the cost of a tour
+     * @param costs matrix of costs between points
+     * @param order points in visiting order, without the start
+     * @return cost of leaving the start, visiting the points and returning
+     */
+    static double tourCost(double[][] costs, int[] order) {
+        double cost = 0.0;
+        int last = 0;
+        for (int point : order) {
+            cost += costs[last][point];
+            last = point;
+        }
+        return cost + costs[last][0];
+    }
+
+    @Override
+    public String toString() {
+        return "Branch and bound";
+    }
+
+    /**
+     * Order found by a search
+     */
+    static class Result {
+
+        private final int[] order;
+        private final boolean proved;
+
+        private Result(int[] order, boolean proved) {
+            this.order = order;
+            this.proved = proved;
+        }
+
+        int[] getOrder() {
+            return this.order;
+        }
+
+        /**
+         * Method to know if every other order was discarded before the time
+         * budget ran out
+         * @return true if the order is optimal
+         */
+        boolean isProved() {
+            return this.proved;
+        }
+
+    }
+
+    /**
+     * Best tour found, replaced as a whole when a better one is found
+     */
+    private static class Tour {
+
+        private final int[] order;
+        private final double cost;
+
+        private Tour(int[] order, double cost) {
+            this.order = order;
+            this.cost = cost;
+        }
+
+    }
+
+    /**
+     * Data shared by every task of a search
+     */
+    private static class Search {
+
+        private final double[][] costs;
+        private final double[] minimumEntry;
+        private final long deadline;
+        private final AtomicReference<Tour> best;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        private Search(double[][] costs, long deadline) {
+            this.costs = costs;
+            this.deadline = deadline;
+            this.best = new AtomicReference<>(new Tour(null, Double.POSITIVE_INFINITY));
+
+            // Cheapest cost to enter each point, from any other point
+            this.minimumEntry = new double[costs.length];
+            for (int point = 0; point < costs.length; ++point) {
+                this.minimumEntry[point] = Double.POSITIVE_INFINITY;
+                for (int from = 0; from < costs.length; ++from) {
+                    if (from != point) {
+                        this.minimumEntry[point] = Math.min(this.minimumEntry[point], costs[from][point]);
+                    }
+                }
+            }
+            if (costs.length == 1) {
+                this.minimumEntry[0] = 0.0;
+            }
+        }
+
+        private void offer(int[] order, double cost) {
+            Tour current = this.best.get();
+            Tour candidate = new Tour(order, cost);
+            while ((current.order == null || cost < current.cost) && !this.best.compareAndSet(current, candidate)) {
+                current = this.best.get();
+            }
+        }
+
+        private boolean isPromising(double bound) {
+            return bound < this.best.get().cost;
+        }
+
+        /**
+         * Method to know if the search must stop, because the time budget ran
+         * out or it was cancelled
+         */
+        private boolean isExpired() {
+            if (this.cancelled || this.expired) {
+                return true;
+            }
+            if (System.nanoTime() >= this.deadline) {
+                this.expired = true;
+            }
+            return this.expired;
+        }
+
+        /**
+         * Method to list the points not yet visited, cheapest to reach first
+         */
+        private int[] candidates(boolean[] visited, int last) {
+            int[] candidates = new int[this.costs.length];
+            int count = 0;
+            for (int point = 1; point < this.costs.length; ++point) {
+                if (!visited[point]) {
+                    int position = count++;
+                    while (position > 0 && this.costs[last][candidates[position - 1]] > this.costs[last][point]) {
+                        candidates[position] = candidates[position - 1];
+                        --position;
+                    }
+                    candidates[position] = point;
+                }
+            }
+            int[] result = new int[count];
+            System.arraycopy(candidates, 0, result, 0, count);
+            return result;
+        }
+
+        private void search(int[] order, boolean[] visited, int depth, double cost, double remaining) {
+            if (isExpired()) {
+                return;
+            }
+
+            int last = depth == 0 ? 0 : order[depth - 1];
+            if (depth == order.length) {
+                offer(order.clone(), cost + this.costs[last][0]);
+                return;
+            }
+
+            for (int point : candidates(visited, last)) {
+                double nextCost = cost + this.costs[last][point];
+                double nextRemaining = remaining - this.minimumEntry[point];
+                if (isPromising(nextCost + nextRemaining)) {
+                    visited[point] = true;
+                    order[depth] = point;
+                    search(order, visited, depth + 1, nextCost, nextRemaining);
+                    visited[point] = false;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Task that explores every tour starting with a given prefix, splitting
+     * in one task per next point while the prefix is short
+     */
+    private static class BranchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int[] order;
+        private final boolean[] visited;
+        private final int depth;
+        private final double cost;
+        private final double remaining;
+
+        private BranchTask(Search search, int[] order, boolean[] visited, int depth, double cost, double remaining) {
+            this.search = search;
+            this.order = order;
+            this.visited = visited;
+            this.depth = depth;
+            this.cost = cost;
+            this.remaining = remaining;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.depth >= SPLIT_DEPTH || this.order.length - this.depth <= SPLIT_DEPTH) {
+                this.search.search(this.order, this.visited, this.depth, this.cost, this.remaining);
+                return;
+            }
+
+            int last = this.depth == 0 ? 0 : this.order[this.depth - 1];
+            List<BranchTask> tasks = new ArrayList<>();
+            for (int point : this.search.candidates(this.visited, last)) {
+                double nextCost = this.cost + this.search.costs[last][point];
+                double nextRemaining = this.remaining - this.search.minimumEntry[point];
+                if (this.search.isPromising(nextCost + nextRemaining)) {
+                    int[] nextOrder = this.order.clone();
+                    boolean[] nextVisited = this.visited.clone();
+                    nextOrder[this.depth] = point;
+                    nextVisited[point] = true;
+                    tasks.add(new BranchTask(this.search, nextOrder, nextVisited, this.depth + 1, nextCost, nextRemaining));
+                }
+            }
+            invokeAll(tasks);
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Class used to find the optimal course order with the Held-Karp dynamic
+ * programming algorithm, in O(2^n * n^2) time and O(2^n * n) memory
+ */
+public class TourSolverHeldKarp implements ITourSolver {
+    
+    /**
+     * Maximum number of points to visit, besides the start, since memory grows
+     * as 2^n * n
+     */
+    public static final int MAX_POINTS = 18;
+    
+    /**
+     * Progress is reported, and interruption checked, every time this many
+     * masks are done
+     */
+    private static final int PROGRESS_MASKS = 1 << 10;
+    
+    @Override
+    public int[] solve(double[][] costs) {
+        return solve(costs, progress -> { });
+    }
+    
+    @Override
+    public int[] solve(double[][] costs, DoubleConsumer progress) {
+        int n = costs.length - 1;
+        if (n > MAX_POINTS) {
+            throw new IllegalArgumentException("The Held-Karp solver supports up to " + MAX_POINTS + " points.");
+        }
+        if (n == 0) {
+            return new int[0];
+        }
+        
+        // best[mask * n + last] is the minimum cost to leave the start, visit
+        // the points in mask (bit i is point i + 1) and stop at last
+        int full = (1 << n) - 1;
+        double[] best = new double[(full + 1) * n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for (int last = 0; last < n; ++last) {
+            best[(1 << last) * n + last] = costs[0][last + 1];
+        }
+        
+        for (int mask = 1; mask <= full; ++mask) {
+            if (mask % PROGRESS_MASKS == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("The course calculation was cancelled.");
+                }
+                progress.accept((double) mask / full);
+            }
+            for (int last = 0; last < n; ++last) {
+                double cost = best[mask * n + last];
+                if ((mask & (1 << last)) == 0 || cost == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int next = 0; next < n; ++next) {
+                    if ((mask & (1 << next)) == 0) {
+                        int nextMask = mask | (1 << next);
+                        double nextCost = cost + costs[last + 1][next + 1];
+                        if (nextCost < best[nextMask * n + next]) {
+                            best[nextMask * n + next] = nextCost;
+                        }
+                    }
+                }
+            }
+        }
+        
+        // Walk back from the start, each time choosing the point whose cost
+        // accounts for the remaining tour
+        int[] order = new int[n];
+        int mask = full;
+        int following = 0;
+        double target = Double.POSITIVE_INFINITY;
+        for (int last = 0; last < n; ++last) {
+            target = Math.min(target, best[full * n + last] + costs[last + 1][0]);
+        }
+        for (int position = n - 1; position >= 0; --position) {
+            int chosen = -1;
+            for (int last = 0; last < n && chosen == -1; ++last) {
+                if ((mask & (1 << last)) != 0 && best[mask * n + last] + costs[last + 1][following] == target) {
+                    chosen = last;
+                }
+            }
+            if (chosen == -1) {
+                chosen = Integer.numberOfTrailingZeros(mask);
+            }
+            order[position] = chosen + 1;
+            target = best[mask * n + chosen];
+            mask &= ~(1 << chosen);
+            following = chosen + 1;
+        }
+        
+        return order;
+    }
+    
+    @Override
+    public String toString() {
+        return "Held-Karp";
+    }
+    
+}
@@ -0,0 +1,241 @@
+package biologicalparkticketsystem.model.course;
+
+/**
+ * Class used to find a good course order for large selections, where an
+ * exact solver would take too long. It builds a nearest neighbour tour and
+ * improves it with 2-opt and Or-opt moves until no move improves it or the
+ * time budget runs out. The costs do not need to be symmetric.
+ *
+ * It can also repair a known order after points were added, inserting each
+ * missing point where it is cheapest before improving the order.
+ */
+public class TourSolverHeuristic implements ITourSolver {
+
+    private static final int OR_OPT_MAX_SEGMENT = 3;
+
+    private final long timeBudgetMillis;
+
+    /**
+     * Creates the solver
+     * @param timeBudgetMillis maximum time spent improving the tour, in
+     * milliseconds
+     */
+    public TourSolverHeuristic(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public long getTimeBudgetMillis() {
+        return this.timeBudgetMillis;
+    }
+
+    @Override
+    public int[] solve(double[][] costs) {
+        long deadline = System.nanoTime() + this.timeBudgetMillis * 1000000L;
+
+        // tour[0] is the start, the tour returns to it after tour[n]
+        int[] tour = nearestNeighbourTour(costs);
+        improve(costs, tour, deadline);
+
+        int[] order = new int[tour.length - 1];
+        System.arraycopy(tour, 1, order, 0, order.length);
+        return order;
+    }
+
+    /**
+     * Method to repair a known order, inserting the points missing from it
+     * where they are cheapest and then improving it as solve does
+     * @param costs matrix of minimum costs between points
+     * @param order some of the points 1 to costs.length - 1 in visiting order
+     * @return points 1 to costs.length - 1 in visiting order
+     */
+    public int[] repair(double[][] costs, int[] order) {
+        long deadline = System.nanoTime() + this.timeBudgetMillis * 1000000L;
+
+        int[] tour = new int[costs.length];
+        boolean[] visited = new boolean[costs.length];
+        visited[0] = true;
+        int length = 1;
+        for (int point : order) {
+            tour[length++] = point;
+            visited[point] = true;
+        }
+        for (int point = 1; point < costs.length; ++point) {
+            if (!visited[point]) {
+                insertCheapest(costs, tour, length++, point);
+            }
+        }
+        improve(costs, tour, deadline);
+
+        int[] repaired = new int[tour.length - 1];
+        System.arraycopy(tour, 1, repaired, 0, repaired.length);
+        return repaired;
+    }
+
+    /**
+     * Method to apply 2-opt and Or-opt moves until no move improves the tour,
+     * the deadline is reached or the thread is interrupted
+     */
+    static void improve(double[][] costs, int[] tour, long deadline) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            improved = twoOpt(costs, tour, deadline);
+            improved |= orOpt(costs, tour, deadline);
+        }
+    }
+
+    /**
+     * Method to insert a point in the position of a tour where it adds the
+     * least cost
+     * @param length number of points already in tour, from the start
+     */
+    static void insertCheapest(double[][] costs, int[] tour, int length, int point) {
+        int best = 0;
+        double bestAdded = Double.NaN;
+        double bestRemoved = Double.NaN;
+        for (int p = 0; p < length; ++p) {
+            int from = tour[p];
+            int to = p + 1 < length ? tour[p + 1] : tour[0];
+            double added = costs[from][point] + costs[point][to];
+            double removed = costs[from][to];
+            // added - removed < bestAdded - bestRemoved, without subtracting infinities
+            if (p == 0 || added + bestRemoved < bestAdded + removed) {
+                best = p;
+                bestAdded = added;
+                bestRemoved = removed;
+            }
+        }
+        System.arraycopy(tour, best + 1, tour, best + 2, length - best - 1);
+        tour[best + 1] = point;
+    }
+
+    /**
+     * Method to build a tour that always goes to the cheapest point not yet
+     * visited
+     * @param costs matrix of costs between points
+     * @return tour starting at point 0
+     */
+    static int[] nearestNeighbourTour(double[][] costs) {
+        int[] tour = new int[costs.length];
+        boolean[] visited = new boolean[costs.length];
+        visited[0] = true;
+
+        for (int position = 1; position < tour.length; ++position) {
+            int current = tour[position - 1];
+            int nearest = -1;
+            for (int point = 1; point < costs.length; ++point) {
+                if (!visited[point] && (nearest == -1 || costs[current][point] < costs[current][nearest])) {
+                    nearest = point;
+                }
+            }
+            tour[position] = nearest;
+            visited[nearest] = true;
+        }
+
+        return tour;
+    }
+
+    /**
+     * Method to apply the first improving 2-opt move found for each start of
+     * segment, reversing the segment tour[i..j]
+     * @return true if the tour was improved
+     */
+    static boolean twoOpt(double[][] costs, int[] tour, long deadline) {
+        int n = tour.length;
+        boolean improved = false;
+
+        for (int i = 1; i < n - 1; ++i) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            int before = tour[i - 1];
+            double forward = 0.0;
+            double backward = 0.0;
+            for (int j = i + 1; j < n; ++j) {
+                forward += costs[tour[j - 1]][tour[j]];
+                backward += costs[tour[j]][tour[j - 1]];
+                int after = j + 1 < n ? tour[j + 1] : tour[0];
+
+                double oldCost = costs[before][tour[i]] + forward + costs[tour[j]][after];
+                double newCost = costs[before][tour[j]] + backward + costs[tour[i]][after];
+                if (newCost < oldCost) {
+                    reverse(tour, i, j);
+                    improved = true;
+                    break;
+                }
+            }
+        }
+
+        return improved;
+    }
+
+    /**
+     * Method to apply the improving Or-opt moves found, moving segments of up
+     * to three points to another position of the tour
+     * @return true if the tour was improved
+     */
+    static boolean orOpt(double[][] costs, int[] tour, long deadline) {
+        int n = tour.length;
+        boolean improved = false;
+
+        for (int length = 1; length <= OR_OPT_MAX_SEGMENT; ++length) {
+            for (int i = 1; i + length <= n; ++i) {
+                if (System.nanoTime() >= deadline) {
+                    return improved;
+                }
+                int end = i + length - 1;
+                int before = tour[i - 1];
+                int after = end + 1 < n ? tour[end + 1] : tour[0];
+                double removed = costs[before][tour[i]] + costs[tour[end]][after];
+
+                for (int p = 0; p < n; ++p) {
+                    if (p >= i - 1 && p <= end) {
+                        continue;
+                    }
+                    int from = tour[p];
+                    int to = p + 1 < n ? tour[p + 1] : tour[0];
+
+                    double oldCost = removed + costs[from][to];
+                    double newCost = costs[before][after] + costs[from][tour[i]] + costs[tour[end]][to];
+                    if (newCost < oldCost) {
+                        moveSegment(tour, i, end, p);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return improved;
+    }
+
+    private static void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int temp = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = temp;
+        }
+    }
+
+    /**
+     * Method to move the segment tour[i..end] to right after position p
+     */
+    private static void moveSegment(int[] tour, int i, int end, int p) {
+        int length = end - i + 1;
+        int[] segment = new int[length];
+        System.arraycopy(tour, i, segment, 0, length);
+
+        if (p < i) {
+            System.arraycopy(tour, p + 1, tour, p + 1 + length, i - p - 1);
+            System.arraycopy(segment, 0, tour, p + 1, length);
+        } else {
+            System.arraycopy(tour, end + 1, tour, i, p - end);
+            System.arraycopy(segment, 0, tour, p - length + 1, length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Heuristic";
+    }
+
+}
@@ -0,0 +1,307 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Class used to find every Pareto optimal course order by cost and distance,
+ * extending the Held-Karp dynamic programming algorithm to sets of labels.
+ *
+ * Each pair of points may be joined by several legs, the Pareto optimal paths
+ * between them. A label is a partial tour with its cost and distance, and
+ * each state, the points visited and the last one, keeps only the labels no
+ * other label of the state is at least as good as in both. Memory grows as
+ * 2^n * n times the number of labels of a state.
+ *
+ * As an ITourSolver it minimizes a single cost, with one leg for each pair of
+ * points and no distance, and finds the same tours Held-Karp does.
+ */
+public class TourSolverPareto implements ITourSolver {
+
+    /**
+     * Maximum number of points to visit, besides the start
+     */
+    public static final int MAX_POINTS = 12;
+
+    /**
+     * Progress is reported, and interruption checked, every time this many
+     * masks are done
+     */
+    private static final int PROGRESS_MASKS = 1 << 6;
+
+    @Override
+    public int[] solve(double[][] costs) {
+        return solve(costs, progress -> { });
+    }
+
+    @Override
+    public int[] solve(double[][] costs, DoubleConsumer progress) {
+        double[][][] legCosts = new double[costs.length][costs.length][];
+        double[][][] legDistances = new double[costs.length][costs.length][];
+        for (int from = 0; from < costs.length; ++from) {
+            for (int to = 0; to < costs.length; ++to) {
+                boolean reachable = costs[from][to] != Double.POSITIVE_INFINITY;
+                legCosts[from][to] = reachable ? new double[] { costs[from][to] } : new double[0];
+                legDistances[from][to] = reachable ? new double[] { 0.0 } : new double[0];
+            }
+        }
+
+        List<Tour> tours = solve(legCosts, legDistances, progress);
+        if (tours.isEmpty()) {
+            // No order has a finite cost, so any of them will do
+            int[] order = new int[costs.length - 1];
+            for (int i = 0; i < order.length; ++i) {
+                order[i] = i + 1;
+            }
+            return order;
+        }
+        return tours.get(0).getOrder();
+    }
+
+    /**
+     * Method to find the Pareto optimal tours
+     * @param legCosts legCosts[from][to] are the costs of the legs between two
+     * points, point 0 being the start
+     * @param legDistances legDistances[from][to] are the distances of the same
+     * legs
+     * @param progress receives the fraction of the search already done
+     * @return tours by increasing cost and decreasing distance, empty if no
+     * tour has a finite cost
+     * @throws CancellationException if the thread was interrupted
+     */
+    List<Tour> solve(double[][][] legCosts, double[][][] legDistances, DoubleConsumer progress) {
+        int n = legCosts.length - 1;
+        if (n > MAX_POINTS) {
+            throw new IllegalArgumentException("The Pareto solver supports up to " + MAX_POINTS + " points.");
+        }
+
+        Labels labels = new Labels();
+        if (n == 0) {
+            Frontier tours = new Frontier();
+            for (int leg = 0; leg < legCosts[0][0].length; ++leg) {
+                tours.offer(labels, legCosts[0][0][leg], legDistances[0][0][leg], -1, 0, leg);
+            }
+            return getTours(labels, tours, 0);
+        }
+
+        // frontiers[mask * n + last] are the labels of the tours that leave the
+        // start, visit the points in mask (bit i is point i + 1) and stop at last
+        int full = (1 << n) - 1;
+        Frontier[] frontiers = new Frontier[(full + 1) * n];
+        for (int last = 0; last < n; ++last) {
+            Frontier frontier = getFrontier(frontiers, (1 << last) * n + last);
+            for (int leg = 0; leg < legCosts[0][last + 1].length; ++leg) {
+                frontier.offer(labels, legCosts[0][last + 1][leg], legDistances[0][last + 1][leg], -1, last + 1, leg);
+            }
+        }
+
+        // Labels of a mask are only added from smaller masks, so they are all
+        // known before the mask is extended
+        for (int mask = 1; mask < full; ++mask) {
+            if (mask % PROGRESS_MASKS == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("The course calculation was cancelled.");
+                }
+                progress.accept((double) mask / full);
+            }
+            for (int last = 0; last < n; ++last) {
+                Frontier frontier = frontiers[mask * n + last];
+                if (frontier == null) {
+                    continue;
+                }
+                for (int i = 0; i < frontier.size; ++i) {
+                    int label = frontier.labels[i];
+                    for (int next = 0; next < n; ++next) {
+                        if ((mask & (1 << next)) == 0) {
+                            double[] costs = legCosts[last + 1][next + 1];
+                            double[] distances = legDistances[last + 1][next + 1];
+                            Frontier nextFrontier = null;
+                            for (int leg = 0; leg < costs.length; ++leg) {
+                                if (nextFrontier == null) {
+                                    nextFrontier = getFrontier(frontiers, (mask | (1 << next)) * n + next);
+                                }
+                                nextFrontier.offer(labels, labels.costs[label] + costs[leg],
+                                        labels.distances[label] + distances[leg], label, next + 1, leg);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Close every tour with a leg back to the start
+        Frontier tours = new Frontier();
+        for (int last = 0; last < n; ++last) {
+            Frontier frontier = frontiers[full * n + last];
+            if (frontier == null) {
+                continue;
+            }
+            double[] costs = legCosts[last + 1][0];
+            double[] distances = legDistances[last + 1][0];
+            for (int i = 0; i < frontier.size; ++i) {
+                int label = frontier.labels[i];
+                for (int leg = 0; leg < costs.length; ++leg) {
+                    tours.offer(labels, labels.costs[label] + costs[leg],
+                            labels.distances[label] + distances[leg], label, 0, leg);
+                }
+            }
+        }
+
+        return getTours(labels, tours, n);
+    }
+
+    private static Frontier getFrontier(Frontier[] frontiers, int state) {
+        if (frontiers[state] == null) {
+            frontiers[state] = new Frontier();
+        }
+        return frontiers[state];
+    }
+
+    /**
+     * Method to rebuild the tours of the closing labels, walking back to the
+     * start
+     */
+    private static List<Tour> getTours(Labels labels, Frontier frontier, int n) {
+        List<Tour> tours = new ArrayList<>();
+        for (int i = 0; i < frontier.size; ++i) {
+            int closing = frontier.labels[i];
+            int[] order = new int[n];
+            int[] legs = new int[n + 1];
+            int position = n;
+            for (int label = closing; label != -1; label = labels.parents[label]) {
+                legs[position] = labels.legs[label];
+                if (position < n) {
+                    order[position] = labels.points[label];
+                }
+                --position;
+            }
+            tours.add(new Tour(order, legs, labels.costs[closing], labels.distances[closing]));
+        }
+        tours.sort((a, b) -> {
+            int order = Double.compare(a.getCost(), b.getCost());
+            return order != 0 ? order : Double.compare(a.getDistance(), b.getDistance());
+        });
+        return tours;
+    }
+
+    @Override
+    public String toString() {
+        return "Pareto";
+    }
+
+    /**
+     * Tour found by the solver
+     */
+    static class Tour {
+
+        private final int[] order;
+        private final int[] legs;
+        private final double cost;
+        private final double distance;
+
+        private Tour(int[] order, int[] legs, double cost, double distance) {
+            this.order = order;
+            this.legs = legs;
+            this.cost = cost;
+            this.distance = distance;
+        }
+
+        /**
+         * Method to get the points in visiting order, without the start
+         * @return points 1 to n
+         */
+        int[] getOrder() {
+            return this.order;
+        }
+
+        /**
+         * Method to get the leg used to reach each point of the order, and
+         * the start at the end
+         * @return leg indexes, one more than the points
+         */
+        int[] getLegs() {
+            return this.legs;
+        }
+
+        double getCost() {
+            return this.cost;
+        }
+
+        double getDistance() {
+            return this.distance;
+        }
+
+    }
+
+    /**
+     * Every label created by a search, in growable parallel arrays
+     */
+    private static class Labels {
+
+        private double[] costs = new double[64];
+        private double[] distances = new double[64];
+        private int[] parents = new int[64];
+        private int[] points = new int[64];
+        private int[] legs = new int[64];
+        private int size = 0;
+
+        private int add(double cost, double distance, int parent, int point, int leg) {
+            if (this.size == this.costs.length) {
+                int capacity = this.size * 2;
+                this.costs = Arrays.copyOf(this.costs, capacity);
+                this.distances = Arrays.copyOf(this.distances, capacity);
+                this.parents = Arrays.copyOf(this.parents, capacity);
+                this.points = Arrays.copyOf(this.points, capacity);
+                this.legs = Arrays.copyOf(this.legs, capacity);
+            }
+            this.costs[this.size] = cost;
+            this.distances[this.size] = distance;
+            this.parents[this.size] = parent;
+            this.points[this.size] = point;
+            this.legs[this.size] = leg;
+            return this.size++;
+        }
+
+    }
+
+    /**
+     * Labels of one state that no other label of it dominates
+     */
+    private static class Frontier {
+
+        private int[] labels = new int[2];
+        private int size = 0;
+
+        /**
+         * Method to add a label unless another one is at least as good in
+         * cost and distance, removing the labels it is at least as good as
+         */
+        private void offer(Labels all, double cost, double distance, int parent, int point, int leg) {
+            for (int i = 0; i < this.size; ++i) {
+                int other = this.labels[i];
+                if (all.costs[other] <= cost && all.distances[other] <= distance) {
+                    return;
+                }
+            }
+
+            int kept = 0;
+            for (int i = 0; i < this.size; ++i) {
+                int other = this.labels[i];
+                if (cost > all.costs[other] || distance > all.distances[other]) {
+                    this.labels[kept++] = other;
+                }
+            }
+            this.size = kept;
+
+            if (this.size == this.labels.length) {
+                this.labels = Arrays.copyOf(this.labels, this.size * 2);
+            }
+            this.labels[this.size++] = all.add(cost, distance, parent, point, leg);
+        }
+
+    }
+
+}
@@ -47,6 +47,13 @@ public interface IMainView extends Observer {
      */
     void showError(String message);
     
+    /**
+     * Method to show the progress of a path calculation
+     * @param progress fraction of the calculation already done, hidden when
+     * it reaches 1
+     */
+    void showCalculationProgress(double progress);
+    
     /**
      * Method to set the triggers / handlers
      * @param controller main controller
@@ -14,9 +14,11 @@ import graphview.CircularSortedPlacementStrategy;
 import graphview.GraphPanel;
 import graphview.VertexPlacementStrategy;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Observable;
+import java.util.Set;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -29,6 +31,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.BorderPane;
@@ -50,6 +53,7 @@ public class MainView implements IMainView {
     private ComboBox criteriaComboBox;
     private Button statisticsButton, calculateButton, undoButton, issueTicketButton;
     private Label costValueLabel, distanceValueLabel;
+    private ProgressBar calculationProgressBar;
     
     // Scene
     private Scene scene;
@@ -72,6 +76,8 @@ public class MainView implements IMainView {
         
         borderPane.setPadding(new Insets(10));
         
+        this.updateReachablePointsOfInterest();
+        
         this.scene = new Scene(borderPane, 800, 600);
     }
     
@@ -138,6 +144,11 @@ public class MainView implements IMainView {
         this.calculateButton = new Button("Calculate");
         content.getChildren().add(this.calculateButton);
         
+        this.calculationProgressBar = new ProgressBar(0);
+        this.calculationProgressBar.managedProperty().bind(this.calculationProgressBar.visibleProperty());
+        this.calculationProgressBar.setVisible(false);
+        content.getChildren().add(this.calculationProgressBar);
+        
         this.undoButton = new Button("Undo");
         this.undoButton.setDisable(true);
         content.getChildren().add(this.undoButton);
@@ -169,6 +180,15 @@ public class MainView implements IMainView {
         
         this.resetGraphColors();
         
+        // A cleared path, such as when no point of interest is selected
+        if (calculatedPath == null) {
+            this.costValueLabel.textProperty().setValue("0");
+            this.distanceValueLabel.textProperty().setValue("0");
+            this.issueTicketButton.setDisable(true);
+            this.undoButton.setDisable(!this.mainModel.hasUndoCalculatedCourse());
+            return;
+        }
+        
         // Set graph vertexes colors with the new calculated path
         Iterator<PointOfInterest> pointsOfInterestIterator = calculatedPath.getPointsOfInterest().iterator();
         PointOfInterest firstPoint = pointsOfInterestIterator.next();
@@ -249,6 +269,12 @@ public class MainView implements IMainView {
         alert.show();
     }
     
+    @Override
+    public void showCalculationProgress(double progress) {
+        this.calculationProgressBar.setVisible(progress < 1.0);
+        this.calculationProgressBar.setProgress(progress);
+    }
+    
     @Override
     public void setTriggers(MainController controller) {
         // Points of interest checkboxes listener
@@ -256,8 +282,15 @@ public class MainView implements IMainView {
             checkBox.selectedProperty().addListener(
                     (ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) ->
                             controller.changePointOfInterest(this.pointsOfInterestCheckBoxes.get(checkBox), oldValue, newValue));
+            checkBox.selectedProperty().addListener(
+                    (ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) ->
+                            updateReachablePointsOfInterest());
         }
         
+        // Points of interest not reachable by bicycle are disabled while on bike
+        this.typeToggleGroup.selectedToggleProperty().addListener(
+                (observable, oldValue, newValue) -> updateReachablePointsOfInterest());
+        
         // Buttons actions
         this.issueTicketButton.setOnAction(event -> controller.issueTicket());
         this.calculateButton.setOnAction(event -> controller.calculatePath());
@@ -265,6 +298,20 @@ public class MainView implements IMainView {
         this.undoButton.setOnAction(event -> controller.undoCalculate());
     }
     
+    /**
+     * Method to disable the points of interest that cannot be visited by
+     * bicycle while on bike. Selected ones stay enabled, so they can still be
+     * removed from the selection.
+     */
+    private void updateReachablePointsOfInterest() {
+        boolean navigability = getNavigability();
+        Set<PointOfInterest> unreachable = new HashSet<>(this.mainModel.getUnreachableByBicycle());
+        for (Map.Entry<CheckBox, IVertex<PointOfInterest>> entry : this.pointsOfInterestCheckBoxes.entrySet()) {
+            CheckBox checkBox = entry.getKey();
+            checkBox.setDisable(navigability && !checkBox.isSelected() && unreachable.contains(entry.getValue().element()));
+        }
+    }
+    
     @Override
     public void plotGraph() {
         this.graphPanel.plotGraph();
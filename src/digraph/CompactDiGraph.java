@@ -0,0 +1,325 @@
+package digraph;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable snapshot of a digraph stored in compressed sparse row form.
+ *
+ * Vertices are numbered with dense ids from 0 to numVertices() - 1 and edges
+ * are numbered from 0 to numEdges() - 1, grouped by outbound vertex: the
+ * outbound edges of vertex v are the ids from outboundStart(v) (inclusive) to
+ * outboundEnd(v) (exclusive). The inbound edges of vertex v are indexed the
+ * same way, from inboundStart(v) to inboundEnd(v), and inboundEdge(i) gives the
+ * edge id at each index, so the graph can also be searched backwards.
+ * The navigable edges are indexed again in both directions, keeping their
+ * order, so searches restricted to them never read the other edges.
+ * Traversing the snapshot only reads primitive
+ * arrays, so it does not allocate and does not depend on the hashing of the
+ * stored elements.
+ *
+ * Later changes to the source graph are not reflected in the snapshot.
+ * @param <V> Type of element stored in the vertices
+ * @param <E> Type of element stored in the edges
+ */
+public class CompactDiGraph<V, E> {
+
+    // Attributes
+    private final List<IVertex<V>> vertices;
+    private final Map<IVertex<V>, Integer> vertexIds;
+    private final List<IEdge<E, V>> edges;
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] inboundOffsets;
+    private final int[] inboundEdges;
+    private final BitSet navigable;
+    private final int[] navigableOffsets;
+    private final int[] navigableEdges;
+    private final int[] navigableInboundOffsets;
+    private final int[] navigableInboundEdges;
+
+    /**
+     * Creates a snapshot of the current state of a graph.
+     * @param graph graph to copy
+     * @param navigable predicate that tells which edges are navigable
+     */
+    public CompactDiGraph(IDiGraph<V, E> graph, Predicate<? super E> navigable) {
+        int numVertices = graph.numVertices();
+
+        this.vertices = new ArrayList<>(numVertices);
+        this.vertexIds = new HashMap<>();
+        for (IVertex<V> vertex : graph.vertices()) {
+            this.vertexIds.put(vertex, this.vertices.size());
+            this.vertices.add(vertex);
+        }
+
+        this.edges = new ArrayList<>();
+        this.offsets = new int[numVertices + 1];
+        for (int v = 0; v < numVertices; ++v) {
+            for (IEdge<E, V> edge : graph.accedentEdges(this.vertices.get(v))) {
+                this.edges.add(edge);
+            }
+            this.offsets[v + 1] = this.edges.size();
+        }
+
+        int numEdges = this.edges.size();
+        this.sources = new int[numEdges];
+        this.targets = new int[numEdges];
+        this.navigable = new BitSet(numEdges);
+        for (int v = 0; v < numVertices; ++v) {
+            for (int e = this.offsets[v]; e < this.offsets[v + 1]; ++e) {
+                IEdge<E, V> edge = this.edges.get(e);
+                this.sources[e] = v;
+                this.targets[e] = this.vertexIds.get(edge.vertexInbound());
+                if (navigable.test(edge.element())) {
+                    this.navigable.set(e);
+                }
+            }
+        }
+
+        // Counting sort of the edge ids by inbound vertex
+        this.inboundOffsets = new int[numVertices + 1];
+        for (int e = 0; e < numEdges; ++e) {
+            ++this.inboundOffsets[this.targets[e] + 1];
+        }
+        for (int v = 0; v < numVertices; ++v) {
+            this.inboundOffsets[v + 1] += this.inboundOffsets[v];
+        }
+        this.inboundEdges = new int[numEdges];
+        int[] next = new int[numVertices];
+        System.arraycopy(this.inboundOffsets, 0, next, 0, numVertices);
+        for (int e = 0; e < numEdges; ++e) {
+            this.inboundEdges[next[this.targets[e]]++] = e;
+        }
+
+        // Navigable subsets of both indexes, in the same order
+        int numNavigable = this.navigable.cardinality();
+        this.navigableOffsets = new int[numVertices + 1];
+        this.navigableEdges = new int[numNavigable];
+        this.navigableInboundOffsets = new int[numVertices + 1];
+        this.navigableInboundEdges = new int[numNavigable];
+        int count = 0;
+        int inboundCount = 0;
+        for (int v = 0; v < numVertices; ++v) {
+            for (int e = this.offsets[v]; e < this.offsets[v + 1]; ++e) {
+                if (this.navigable.get(e)) {
+                    this.navigableEdges[count++] = e;
+                }
+            }
+            this.navigableOffsets[v + 1] = count;
+            for (int i = this.inboundOffsets[v]; i < this.inboundOffsets[v + 1]; ++i) {
+                if (this.navigable.get(this.inboundEdges[i])) {
+                    this.navigableInboundEdges[inboundCount++] = this.inboundEdges[i];
+                }
+            }
+            this.navigableInboundOffsets[v + 1] = inboundCount;
+        }
+    }
+
+    /**
+     * Returns the number of vertices of the snapshot
+     * @return vertex count
+     */
+    public int numVertices() {
+        return this.vertices.size();
+    }
+
+    /**
+     * Returns the number of directed edges of the snapshot
+     * @return edge count
+     */
+    public int numEdges() {
+        return this.edges.size();
+    }
+
+    /**
+     * Returns the dense id of a vertex
+     * @param vertex vertex of the source graph
+     * @return vertex id
+     * @exception InvalidVertexException if the vertex is not in the snapshot.
+     */
+    public int idOf(IVertex<V> vertex) throws InvalidVertexException {
+        Integer id = this.vertexIds.get(vertex);
+        if (id == null) {
+            throw new InvalidVertexException("Vertex does not belong to this graph.");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the vertex with a given id
+     * @param id vertex id
+     * @return vertex of the source graph
+     */
+    public IVertex<V> vertex(int id) {
+        return this.vertices.get(id);
+    }
+
+    /**
+     * Returns the edge with a given id
+     * @param id edge id
+     * @return edge of the source graph
+     */
+    public IEdge<E, V> edge(int id) {
+        return this.edges.get(id);
+    }
+
+    /**
+     * Returns the id of the first outbound edge of a vertex
+     * @param vertex vertex id
+     * @return first edge id
+     */
+    public int outboundStart(int vertex) {
+        return this.offsets[vertex];
+    }
+
+    /**
+     * Returns the id following the last outbound edge of a vertex
+     * @param vertex vertex id
+     * @return edge id after the last outbound edge
+     */
+    public int outboundEnd(int vertex) {
+        return this.offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the index of the first inbound edge of a vertex
+     * @param vertex vertex id
+     * @return first inbound index
+     */
+    public int inboundStart(int vertex) {
+        return this.inboundOffsets[vertex];
+    }
+
+    /**
+     * Returns the index following the last inbound edge of a vertex
+     * @param vertex vertex id
+     * @return inbound index after the last inbound edge
+     */
+    public int inboundEnd(int vertex) {
+        return this.inboundOffsets[vertex + 1];
+    }
+
+    /**
+     * Returns the edge id at an inbound index
+     * @param index inbound index, between inboundStart and inboundEnd of a vertex
+     * @return edge id
+     */
+    public int inboundEdge(int index) {
+        return this.inboundEdges[index];
+    }
+
+    /**
+     * Returns the index of the first outbound edge of a vertex, or of its
+     * first navigable outbound edge
+     * @param vertex vertex id
+     * @param navigableOnly true to index only the navigable edges
+     * @return first outbound index
+     */
+    public int outboundStart(int vertex, boolean navigableOnly) {
+        return navigableOnly ? this.navigableOffsets[vertex] : this.offsets[vertex];
+    }
+
+    /**
+     * Returns the index following the last outbound edge of a vertex, or its
+     * last navigable outbound edge
+     * @param vertex vertex id
+     * @param navigableOnly true to index only the navigable edges
+     * @return outbound index after the last outbound edge
+     */
+    public int outboundEnd(int vertex, boolean navigableOnly) {
+        return navigableOnly ? this.navigableOffsets[vertex + 1] : this.offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the edge id at an outbound index. Without navigableOnly every
+     * index is the edge id itself.
+     * @param index outbound index, between outboundStart and outboundEnd of a
+     * vertex with the same navigableOnly
+     * @param navigableOnly true to index only the navigable edges
+     * @return edge id
+     */
+    public int outboundEdge(int index, boolean navigableOnly) {
+        return navigableOnly ? this.navigableEdges[index] : index;
+    }
+
+    /**
+     * Returns the index of the first inbound edge of a vertex, or of its
+     * first navigable inbound edge
+     * @param vertex vertex id
+     * @param navigableOnly true to index only the navigable edges
+     * @return first inbound index
+     */
+    public int inboundStart(int vertex, boolean navigableOnly) {
+        return navigableOnly ? this.navigableInboundOffsets[vertex] : this.inboundOffsets[vertex];
+    }
+
+    /**
+     * Returns the index following the last inbound edge of a vertex, or its
+     * last navigable inbound edge
+     * @param vertex vertex id
+     * @param navigableOnly true to index only the navigable edges
+     * @return inbound index after the last inbound edge
+     */
+    public int inboundEnd(int vertex, boolean navigableOnly) {
+        return navigableOnly ? this.navigableInboundOffsets[vertex + 1] : this.inboundOffsets[vertex + 1];
+    }
+
+    /**
+     * Returns the edge id at an inbound index
+     * @param index inbound index, between inboundStart and inboundEnd of a
+     * vertex with the same navigableOnly
+     * @param navigableOnly true to index only the navigable edges
+     * @return edge id
+     */
+    public int inboundEdge(int index, boolean navigableOnly) {
+        return navigableOnly ? this.navigableInboundEdges[index] : this.inboundEdges[index];
+    }
+
+    /**
+     * Returns the outbound vertex of an edge
+     * @param edge edge id
+     * @return vertex id
+     */
+    public int source(int edge) {
+        return this.sources[edge];
+    }
+
+    /**
+     * Returns the inbound vertex of an edge
+     * @param edge edge id
+     * @return vertex id
+     */
+    public int target(int edge) {
+        return this.targets[edge];
+    }
+
+    /**
+     * Returns if an edge is navigable
+     * @param edge edge id
+     * @return true if the edge matched the navigable predicate
+     */
+    public boolean isNavigable(int edge) {
+        return this.navigable.get(edge);
+    }
+
+    /**
+     * Computes the weight of every edge, indexed by edge id
+     * @param weightFunction function that returns the weight of an edge element
+     * @return array of edge weights
+     */
+    public double[] weights(ToDoubleFunction<? super E> weightFunction) {
+        double[] weights = new double[this.edges.size()];
+        for (int e = 0; e < weights.length; ++e) {
+            weights[e] = weightFunction.applyAsDouble(this.edges.get(e).element());
+        }
+        return weights;
+    }
+
+}
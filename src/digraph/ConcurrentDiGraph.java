@@ -0,0 +1,252 @@
+package digraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Thread safe digraph for graphs that are read much more often than they are
+ * changed.
+ *
+ * The graph is kept as a sequence of published states. Readers take the
+ * current state with a single volatile read and never block, so every query
+ * (including the iteration of the returned iterables) sees one consistent
+ * version of the graph even while another thread is changing it. Writers are
+ * serialized: each change is applied to a private copy of the current state,
+ * which is then published in place of the previous one. Listeners are
+ * notified after the new state has been published.
+ *
+ * The copy shares the vertex and edge instances of the previous state, so the
+ * references returned by the graph stay valid across changes. The exception is
+ * replacing the element of a vertex or an edge, which gives it a new instance,
+ * found again by its new element, so readers of previous states never see it.
+ *
+ * Since the first change after a snapshot copies the graph structure, graphs
+ * that are built in bulk should be filled in a {@link DiGraph} and then
+ * wrapped.
+ * @param <V> Type of element stored in the vertices
+ * @param <E> Type of element stored in the edges
+ */
+public class ConcurrentDiGraph<V, E> implements IDiGraph<V, E> {
+
+    // Attributes
+    private final Object writeLock;
+    private final List<IDiGraphListener<V, E>> listeners;
+    private volatile DiGraph<V, E> state;
+
+    /**
+     * Creates an empty graph.
+     */
+    public ConcurrentDiGraph() {
+        this(new DiGraph<>());
+    }
+
+    /**
+     * Creates a graph with a snapshot of the current state of another graph,
+     * sharing its vertex and edge instances.
+     * @param graph graph to copy
+     */
+    public ConcurrentDiGraph(DiGraph<V, E> graph) {
+        this.writeLock = new Object();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.state = graph.snapshot();
+    }
+
+    @Override
+    public int numVertices() {
+        return this.state.numVertices();
+    }
+
+    @Override
+    public int numEdges() {
+        return this.state.numEdges();
+    }
+
+    @Override
+    public Iterable<IVertex<V>> vertices() {
+        return this.state.vertices();
+    }
+
+    @Override
+    public Iterable<IEdge<E, V>> edges() {
+        return this.state.edges();
+    }
+
+    @Override
+    public Iterable<IEdge<E, V>> accedentEdges(IVertex<V> v) throws InvalidEdgeException {
+        return this.state.accedentEdges(v);
+    }
+
+    @Override
+    public Iterable<IEdge<E, V>> incidentEdges(IVertex<V> v) throws InvalidEdgeException {
+        return this.state.incidentEdges(v);
+    }
+
+    @Override
+    public Iterable<IEdge<E, V>> edgesBetween(IVertex<V> u, IVertex<V> v) throws InvalidVertexException {
+        return this.state.edgesBetween(u, v);
+    }
+
+    @Override
+    public IVertex<V> opposite(IVertex<V> v, IEdge<E, V> e) throws InvalidVertexException, InvalidEdgeException {
+        return this.state.opposite(v, e);
+    }
+
+    @Override
+    public boolean areAdjacent(IVertex<V> u, IVertex<V> v) throws InvalidVertexException {
+        return this.state.areAdjacent(u, v);
+    }
+
+    @Override
+    public IVertex<V> insertVertex(V vElement) {
+        return write(next -> next.insertVertex(vElement));
+    }
+
+    @Override
+    public IEdge<E, V> insertEdge(IVertex<V> u, IVertex<V> v, E edgeElement) throws InvalidVertexException {
+        return write(next -> next.insertEdge(u, v, edgeElement));
+    }
+
+    @Override
+    public IEdge<E, V> insertEdge(V vElement1, V vElement2, E edgeElement) throws InvalidVertexException {
+        return write(next -> next.insertEdge(vElement1, vElement2, edgeElement));
+    }
+
+    @Override
+    public V removeVertex(IVertex<V> v) throws InvalidVertexException {
+        return write(next -> next.removeVertex(v));
+    }
+
+    @Override
+    public E removeEdge(IEdge<E, V> e) throws InvalidEdgeException {
+        return write(next -> next.removeEdge(e));
+    }
+
+    @Override
+    public V replace(IVertex<V> v, V newElement) throws InvalidVertexException {
+        return write(next -> next.replace(v, newElement));
+    }
+
+    @Override
+    public E replace(IEdge<E, V> e, E newElement) throws InvalidEdgeException {
+        return write(next -> next.replace(e, newElement));
+    }
+
+    @Override
+    public long version() {
+        return this.state.version();
+    }
+
+    @Override
+    public void addListener(IDiGraphListener<V, E> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IDiGraphListener<V, E> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Returns a snapshot of the current state of the graph. The snapshot is
+     * not thread safe, but it is only seen by the caller.
+     * @return snapshot of the graph
+     */
+    @Override
+    public DiGraph<V, E> snapshot() {
+        return this.state.snapshot();
+    }
+
+    /**
+     * Retrieve a vertex by its element
+     * @param element
+     * @return vertex
+     */
+    public IVertex<V> getVertexByElement(V element) {
+        return this.state.getVertexByElement(element);
+    }
+
+    /**
+     * Retrieve a edge by its edge and vertex
+     * @param edge
+     * @param vertex outbound vertex element of the edge
+     * @return edge, or null if there is no such edge leaving the vertex
+     */
+    public IEdge<E, V> getEdgeByElement(E edge, V vertex) {
+        return this.state.getEdgeByElement(edge, vertex);
+    }
+
+    @Override
+    public String toString() {
+        return this.state.toString();
+    }
+
+    /**
+     * Applies a change to a snapshot of the current state and publishes it,
+     * notifying the listeners afterwards.
+     * @param <T> Type of the change result
+     * @param change change to apply
+     * @return change result
+     */
+    private <T> T write(Function<DiGraph<V, E>, T> change) {
+        synchronized (this.writeLock) {
+            DiGraph<V, E> next = this.state.snapshot();
+            EventRecorder recorder = new EventRecorder();
+
+            next.addListener(recorder);
+            T result = change.apply(next);
+            next.removeListener(recorder);
+
+            this.state = next;
+            for (Consumer<IDiGraphListener<V, E>> event : recorder.events) {
+                for (IDiGraphListener<V, E> listener : this.listeners) {
+                    event.accept(listener);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records the events of a change so they can be notified once the change
+     * has been published.
+     */
+    private class EventRecorder implements IDiGraphListener<V, E> {
+
+        private final List<Consumer<IDiGraphListener<V, E>>> events = new ArrayList<>();
+
+        @Override
+        public void vertexInserted(IVertex<V> v) {
+            this.events.add(listener -> listener.vertexInserted(v));
+        }
+
+        @Override
+        public void edgeInserted(IEdge<E, V> e) {
+            this.events.add(listener -> listener.edgeInserted(e));
+        }
+
+        @Override
+        public void vertexRemoved(IVertex<V> v) {
+            this.events.add(listener -> listener.vertexRemoved(v));
+        }
+
+        @Override
+        public void edgeRemoved(IEdge<E, V> e) {
+            this.events.add(listener -> listener.edgeRemoved(e));
+        }
+
+        @Override
+        public void vertexReplaced(IVertex<V> v, V oldElement) {
+            this.events.add(listener -> listener.vertexReplaced(v, oldElement));
+        }
+
+        @Override
+        public void edgeReplaced(IEdge<E, V> e, E oldElement) {
+            this.events.add(listener -> listener.edgeReplaced(e, oldElement));
+        }
+
+    }
+
+}
@@ -1,21 +1,55 @@
 package digraph;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * ADT Graph implementation that stores a collection of edges (and vertices) and
  * where each edge contains the references for the vertices it connects.
  *
  * Does not allow duplicates of stored elements through <b>equals</b> criteria.
+ *
+ * Each vertex also keeps its outbound and inbound edges in adjacency lists, so
+ * accedent and incident edges are retrieved in time proportional to the vertex
+ * degree instead of scanning every edge of the graph. The edges connecting each
+ * (outbound, inbound) pair of vertices are indexed as well, so adjacency tests
+ * are a constant time lookup.
+ *
+ * The iterables returned by the graph are read-only views over its internal
+ * structures, not copies. Their iterators fail fast with a
+ * ConcurrentModificationException if the graph is structurally modified
+ * while iterating.
+ *
+ * Snapshots share the internal structures with the graph they were taken from,
+ * so taking one is a constant time operation. Whichever of them changes first
+ * copies the shared structures before applying the change, leaving the other
+ * one untouched. Vertices and edges are shared as well, so replacing the
+ * element of one that a snapshot can see gives it a new instance instead of
+ * changing it.
+ *
+ * Graphs known in advance, such as the ones loaded from a file, can be created
+ * in a single step with a {@link Builder}.
  */
 public class DiGraph<V, E> implements IDiGraph<V, E> {
     
     // Attributes
     private Map<V, IVertex<V>> vertices;
     private Map<E, List<IEdge<E, V>>> edges;
+    private Map<IVertex<V>, List<IEdge<E, V>>> outboundEdges;
+    private Map<IVertex<V>, List<IEdge<E, V>>> inboundEdges;
+    private Map<IVertex<V>, Map<IVertex<V>, List<IEdge<E, V>>>> connectingEdges;
+    private int modCount;
+    private long version;
+    private boolean shared;
+    private Object owner;
+    private List<IDiGraphListener<V, E>> listeners;
 
     /**
      * Creates a empty graph.
@@ -23,6 +57,54 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     public DiGraph() {
         this.vertices = new HashMap<>();
         this.edges = new HashMap<>();
+        this.outboundEdges = new HashMap<>();
+        this.inboundEdges = new HashMap<>();
+        this.connectingEdges = new HashMap<>();
+        this.modCount = 0;
+        this.version = 0;
+        this.shared = false;
+        this.owner = new Object();
+        this.listeners = new ArrayList<>();
+    }
+    
+    /**
+     * Creates a empty graph with room for the expected amount of elements.
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges expected number of edge elements
+     */
+    private DiGraph(int expectedVertices, int expectedEdges) {
+        this.vertices = new HashMap<>(capacityFor(expectedVertices));
+        this.edges = new HashMap<>(capacityFor(expectedEdges));
+        this.outboundEdges = new HashMap<>(capacityFor(expectedVertices));
+        this.inboundEdges = new HashMap<>(capacityFor(expectedVertices));
+        this.connectingEdges = new HashMap<>(capacityFor(expectedVertices));
+        this.modCount = 0;
+        this.version = 0;
+        this.shared = false;
+        this.owner = new Object();
+        this.listeners = new ArrayList<>();
+    }
+    
+    /**
+     * Creates a snapshot of a graph, sharing its structures until one of them
+     * is changed.
+     * @param other graph to copy
+     */
+    private DiGraph(DiGraph<V, E> other) {
+        this.vertices = other.vertices;
+        this.edges = other.edges;
+        this.outboundEdges = other.outboundEdges;
+        this.inboundEdges = other.inboundEdges;
+        this.connectingEdges = other.connectingEdges;
+        this.modCount = 0;
+        this.version = other.version;
+        this.shared = true;
+        this.owner = new Object();
+        this.listeners = new ArrayList<>();
+        
+        // Neither graph may change the vertices and edges they now share
+        other.shared = true;
+        other.owner = new Object();
     }
 
     @Override
@@ -37,22 +119,12 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
 
     @Override
     public Iterable<IVertex<V>> vertices() {
-        List<IVertex<V>> vertexList = new ArrayList<>();
-        for (IVertex<V> v : vertices.values()) {
-            vertexList.add(v);
-        }
-        return vertexList;
+        return () -> new ViewIterator<>(Collections.singleton(vertices.values()).iterator());
     }
 
     @Override
     public Iterable<IEdge<E, V>> edges() {
-        List<IEdge<E, V>> edgeList = new ArrayList<>();
-        for (List<IEdge<E, V>> eList : edges.values()) {
-            for (IEdge<E, V> e : eList) {
-                edgeList.add(e);
-            }
-        }
-        return edgeList;
+        return () -> new ViewIterator<>(edges.values().iterator());
     }
     
     @Override
@@ -60,16 +132,7 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
         
         checkVertex(v);
         
-        List<IEdge<E,V>> acedentEdges = new ArrayList<>();
-        for (List<IEdge<E, V>> edgeList : edges.values()) {
-            for (IEdge<E, V> edge : edgeList) {
-                if (edge.vertexOutbound() == v) {
-                    acedentEdges.add(edge);
-                }
-            }
-        }
-    
-        return acedentEdges;
+        return Collections.unmodifiableList(outboundEdges.get(v));
         
     }
 
@@ -78,16 +141,22 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
         
         checkVertex(v);
         
-        List<IEdge<E,V>> incidentEdges = new ArrayList<>();
-        for (List<IEdge<E, V>> edgeList : edges.values()) {
-            for (IEdge<E, V> edge :edgeList) {
-                if (edge.vertexInbound() == v) {
-                    incidentEdges.add(edge);
-                }
-            }
+        return Collections.unmodifiableList(inboundEdges.get(v));
+        
+    }
+
+    @Override
+    public Iterable<IEdge<E, V>> edgesBetween(IVertex<V> u, IVertex<V> v) throws InvalidVertexException {
+        
+        checkVertex(u);
+        checkVertex(v);
+        
+        Map<IVertex<V>, List<IEdge<E, V>>> outboundConnections = connectingEdges.get(u);
+        if (outboundConnections == null || !outboundConnections.containsKey(v)) {
+            return Collections.emptyList();
         }
-    
-        return incidentEdges;
+        
+        return Collections.unmodifiableList(outboundConnections.get(v));
         
     }
 
@@ -95,7 +164,7 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     public IVertex<V> opposite(IVertex<V> v, IEdge<E, V> e) throws InvalidVertexException, InvalidEdgeException {
         
         checkVertex(v);
-        Edge edge = checkEdge(e);
+        Edge<E, V> edge = checkEdge(e);
         
         // Check if this edge connects to vertex v
         if(edge.vertexOutbound() != v) {
@@ -109,18 +178,7 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     @Override
     public boolean areAdjacent(IVertex<V> u, IVertex<V> v) throws InvalidVertexException {
         //we allow loops, so we do not check if u == v
-        checkVertex(u);
-        checkVertex(v);
-        
-        /* find an edge that contains both u and v */
-        for (List<IEdge<E, V>> edgeList : edges.values()) {
-            for (IEdge<E, V> edge : edgeList) {
-                if(edge.vertexOutbound() == u && edge.vertexInbound() == v) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return edgesBetween(u, v).iterator().hasNext();
     }
 
     @Override
@@ -129,17 +187,25 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
             throw new IllegalArgumentException("There's already a vertex with this element.");
         }
 
-        Vertex newVertex = new Vertex(vElement);
+        detach();
+        
+        Vertex<V> newVertex = newVertex(vElement);
 
         vertices.put(vElement, newVertex);
+        ++modCount;
+        outboundEdges.put(newVertex, new ArrayList<>());
+        inboundEdges.put(newVertex, new ArrayList<>());
 
+        ++version;
+        fire(listener -> listener.vertexInserted(newVertex));
+        
         return newVertex;
     }
 
     @Override
     public IEdge<E, V> insertEdge(IVertex<V> u, IVertex<V> v, E edgeElement) throws InvalidVertexException {
         
-        Edge oldEdge = null;
+        Edge<E, V> oldEdge = null;
 
         if (existsEdgeWith(edgeElement)) {
             List<IEdge<E, V>> oldEdges = edges.get(edgeElement);
@@ -154,10 +220,12 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
             }
         }
 
-        Vertex vertexOutbound = checkVertex(u);
-        Vertex vertexInbound = checkVertex(v);
+        Vertex<V> vertexOutbound = checkVertex(u);
+        Vertex<V> vertexInbound = checkVertex(v);
 
-        Edge newEdge = new Edge(edgeElement, vertexOutbound, vertexInbound);
+        detach();
+        
+        Edge<E, V> newEdge = newEdge(edgeElement, vertexOutbound, vertexInbound);
         
         List<IEdge<E, V>> newEdges = new ArrayList<>();
         newEdges.add(newEdge);
@@ -167,21 +235,28 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
         }
 
         edges.put(edgeElement, newEdges);
+        ++modCount;
+        linkEdge(u, v, newEdge);
 
+        ++version;
+        fire(listener -> listener.edgeInserted(newEdge));
+        
         return newEdge;
 
     }
 
     @Override
     public IEdge<E, V> insertEdge(V vElement1, V vElement2, E edgeElement) throws InvalidVertexException {
-        if (!existsVertexWith(vElement1)) {
+        Vertex<V> vertexOutbound = vertexOf(vElement1);
+        if (vertexOutbound == null) {
             throw new InvalidVertexException("No vertex contains " + vElement1);
         }
-        if (!existsVertexWith(vElement2)) {
+        Vertex<V> vertexInbound = vertexOf(vElement2);
+        if (vertexInbound == null) {
             throw new InvalidVertexException("No vertex contains " + vElement2);
         }
         
-        return insertEdge(vertexOf(vElement1), vertexOf(vElement2), edgeElement);
+        return insertEdge(vertexOutbound, vertexInbound, edgeElement);
 
     }
 
@@ -189,20 +264,29 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     public V removeVertex(IVertex<V> v) throws InvalidVertexException {
         checkVertex(v);
 
+        detach();
+        
         V element = v.element();
         
-        //remove incident edges
-        Iterable<IEdge<E, V>> incidentEdges = incidentEdges(v);
-        for (IEdge<E, V> edge : incidentEdges) {
-            edges.remove(edge.element());
-        }
-        //remove acedent edges
-        Iterable<IEdge<E, V>> acedentEdges = accedentEdges(v);
-        for (IEdge<E, V> edge : acedentEdges) {
-            edges.remove(edge.element());
+        //remove incident and acedent edges
+        List<IEdge<E, V>> connectedEdges = new ArrayList<>(inboundEdges.get(v));
+        connectedEdges.addAll(outboundEdges.get(v));
+        List<IEdge<E, V>> removedEdges = new ArrayList<>();
+        for (IEdge<E, V> edge : connectedEdges) {
+            removedEdges.addAll(removeEdgesWith(edge.element()));
         }
         
         vertices.remove(v.element());
+        ++modCount;
+        outboundEdges.remove(v);
+        inboundEdges.remove(v);
+        connectingEdges.remove(v);
+        
+        ++version;
+        for (IEdge<E, V> edge : removedEdges) {
+            fire(listener -> listener.edgeRemoved(edge));
+        }
+        fire(listener -> listener.vertexRemoved(v));
         
         return element; 
     }
@@ -211,9 +295,16 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     public E removeEdge(IEdge<E, V> e) throws InvalidEdgeException {
         checkEdge(e);
 
+        detach();
+        
         E element = e.element();
-        edges.remove(e.element());
+        List<IEdge<E, V>> removedEdges = removeEdgesWith(element);
 
+        ++version;
+        for (IEdge<E, V> edge : removedEdges) {
+            fire(listener -> listener.edgeRemoved(edge));
+        }
+        
         return element;
     }
 
@@ -223,11 +314,26 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
             throw new IllegalArgumentException("There's already a vertex with this element.");
         }
 
-        Vertex vertex = checkVertex(v);
+        Vertex<V> vertex = checkVertex(v);
 
-        V oldElement = (V) vertex.element();
-        vertex.setElement(newElement);
+        detach();
+        
+        V oldElement = vertex.element();
+        Vertex<V> newVertex = vertex;
+        if (vertex.owner == owner) {
+            vertex.setElement(newElement);
+        } else {
+            newVertex = newVertex(newElement);
+            moveVertex(vertex, newVertex);
+        }
+        vertices.remove(oldElement);
+        vertices.put(newElement, newVertex);
+        ++modCount;
 
+        ++version;
+        IVertex<V> replacedVertex = newVertex;
+        fire(listener -> listener.vertexReplaced(replacedVertex, oldElement));
+        
         return oldElement;
     }
 
@@ -237,14 +343,53 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
             throw new IllegalArgumentException("There's already an edge with this element.");
         }
 
-        Edge edge = checkEdge(e);
+        Edge<E, V> edge = checkEdge(e);
 
-        E oldElement = (E) edge.element();
-        edge.setElement(newElement);
+        detach();
+        
+        E oldElement = edge.element();
+        Edge<E, V> newEdge = edge;
+        if (edge.owner == owner) {
+            edge.setElement(newElement);
+        } else {
+            newEdge = newEdge(newElement, edge.vertexOutbound(), edge.vertexInbound());
+            swapEdge(edge, newEdge);
+        }
+        List<IEdge<E, V>> oldEdges = edges.get(oldElement);
+        oldEdges.remove(edge);
+        if (oldEdges.isEmpty()) {
+            edges.remove(oldElement);
+        }
+        edges.computeIfAbsent(newElement, k -> new ArrayList<>()).add(newEdge);
+        ++modCount;
 
+        ++version;
+        IEdge<E, V> replacedEdge = newEdge;
+        fire(listener -> listener.edgeReplaced(replacedEdge, oldElement));
+        
         return oldElement;
     }
     
+    @Override
+    public long version() {
+        return version;
+    }
+    
+    @Override
+    public void addListener(IDiGraphListener<V, E> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void removeListener(IDiGraphListener<V, E> listener) {
+        listeners.remove(listener);
+    }
+    
+    @Override
+    public DiGraph<V, E> snapshot() {
+        return new DiGraph<>(this);
+    }
+    
     /**
      * Retrieve a vertex by its element
      * @param element
@@ -257,27 +402,180 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     /**
      * Retrieve a edge by its edge and vertex
      * @param edge
-     * @param vertex
-     * @return edge
+     * @param vertex outbound vertex element of the edge
+     * @return edge, or null if there is no such edge leaving the vertex
      */
     public IEdge<E, V> getEdgeByElement(E edge, V vertex) {
         IVertex<V> tempVertex = getVertexByElement(vertex);
-        List<IEdge<E, V>> tempEdge = edges.get(edge);
+        List<IEdge<E, V>> tempEdges = edges.get(edge);
+        if (tempVertex == null || tempEdges == null) {
+            return null;
+        }
         
-        if (tempEdge.get(0).vertexOutbound() == tempVertex) {
-            return tempEdge.get(0);
-        } else {
-            return tempEdge.get(1);
+        for (IEdge<E, V> tempEdge : tempEdges) {
+            if (tempEdge.vertexOutbound() == tempVertex) {
+                return tempEdge;
+            }
         }
+        return null;
     }
 
-    private Vertex vertexOf(V vElement) {
-        for (IVertex<V> v : vertices.values()) {
-            if (v.element().equals(vElement)) {
-                return (Vertex) v;
+    private Vertex<V> vertexOf(V vElement) {
+        return (Vertex<V>) vertices.get(vElement);
+    }
+    
+    private Vertex<V> newVertex(V vElement) {
+        Vertex<V> vertex = new Vertex<>(vElement);
+        vertex.owner = owner;
+        return vertex;
+    }
+    
+    private Edge<E, V> newEdge(E edgeElement, IVertex<V> u, IVertex<V> v) {
+        Edge<E, V> edge = new Edge<>(edgeElement, u, v);
+        edge.owner = owner;
+        return edge;
+    }
+    
+    /**
+     * Puts a new vertex in place of another one in every structure, with new
+     * instances of the edges connected to it, so the instances seen by
+     * snapshots are not changed.
+     * @param vertex vertex to replace
+     * @param newVertex vertex put in its place
+     */
+    private void moveVertex(Vertex<V> vertex, Vertex<V> newVertex) {
+        List<IEdge<E, V>> connectedEdges = new ArrayList<>(outboundEdges.get(vertex));
+        for (IEdge<E, V> edge : inboundEdges.get(vertex)) {
+            if (edge.vertexOutbound() != vertex) {
+                connectedEdges.add(edge);
             }
         }
-        return null;
+        
+        outboundEdges.put(newVertex, outboundEdges.remove(vertex));
+        inboundEdges.put(newVertex, inboundEdges.remove(vertex));
+        Map<IVertex<V>, List<IEdge<E, V>>> outboundConnections = connectingEdges.remove(vertex);
+        if (outboundConnections != null) {
+            connectingEdges.put(newVertex, outboundConnections);
+        }
+        for (IEdge<E, V> edge : inboundEdges.get(newVertex)) {
+            IVertex<V> u = edge.vertexOutbound() == vertex ? newVertex : edge.vertexOutbound();
+            Map<IVertex<V>, List<IEdge<E, V>>> connections = connectingEdges.get(u);
+            if (connections.containsKey(vertex)) {
+                connections.put(newVertex, connections.remove(vertex));
+            }
+        }
+        
+        for (IEdge<E, V> edge : connectedEdges) {
+            Edge<E, V> newEdge = newEdge(edge.element(),
+                    edge.vertexOutbound() == vertex ? newVertex : edge.vertexOutbound(),
+                    edge.vertexInbound() == vertex ? newVertex : edge.vertexInbound());
+            swapEdge(edge, newEdge);
+            List<IEdge<E, V>> edgeList = edges.get(edge.element());
+            edgeList.set(edgeList.indexOf(edge), newEdge);
+        }
+    }
+    
+    /**
+     * Puts a new edge in place of another one in the adjacency lists and the
+     * pair index, keeping its position. The new edge connects the same
+     * vertices, or the vertices they were moved to.
+     * @param edge edge to replace
+     * @param newEdge edge put in its place
+     */
+    private void swapEdge(IEdge<E, V> edge, IEdge<E, V> newEdge) {
+        List<IEdge<E, V>> outbound = outboundEdges.get(newEdge.vertexOutbound());
+        outbound.set(outbound.indexOf(edge), newEdge);
+        List<IEdge<E, V>> inbound = inboundEdges.get(newEdge.vertexInbound());
+        inbound.set(inbound.indexOf(edge), newEdge);
+        List<IEdge<E, V>> pairEdges = connectingEdges.get(newEdge.vertexOutbound()).get(newEdge.vertexInbound());
+        pairEdges.set(pairEdges.indexOf(edge), newEdge);
+    }
+
+    /**
+     * Removes every edge stored with the given element and unlinks them from
+     * the adjacency lists and the pair index of the vertices they connect.
+     * @param edgeElement element of the edges to remove
+     * @return removed edges
+     */
+    private List<IEdge<E, V>> removeEdgesWith(E edgeElement) {
+        List<IEdge<E, V>> removedEdges = edges.remove(edgeElement);
+        if (removedEdges == null) {
+            return Collections.emptyList();
+        }
+        ++modCount;
+        
+        for (IEdge<E, V> edge : removedEdges) {
+            outboundEdges.get(edge.vertexOutbound()).remove(edge);
+            inboundEdges.get(edge.vertexInbound()).remove(edge);
+            
+            Map<IVertex<V>, List<IEdge<E, V>>> outboundConnections = connectingEdges.get(edge.vertexOutbound());
+            List<IEdge<E, V>> pairEdges = outboundConnections.get(edge.vertexInbound());
+            pairEdges.remove(edge);
+            if (pairEdges.isEmpty()) {
+                outboundConnections.remove(edge.vertexInbound());
+            }
+        }
+        
+        return removedEdges;
+    }
+    
+    /**
+     * Adds an edge to the adjacency lists and the pair index of the vertices
+     * it connects.
+     * @param u outbound vertex
+     * @param v inbound vertex
+     * @param newEdge edge to add
+     */
+    private void linkEdge(IVertex<V> u, IVertex<V> v, IEdge<E, V> newEdge) {
+        outboundEdges.get(u).add(newEdge);
+        inboundEdges.get(v).add(newEdge);
+        connectingEdges.computeIfAbsent(u, k -> new HashMap<>())
+                .computeIfAbsent(v, k -> new ArrayList<>())
+                .add(newEdge);
+    }
+    
+    /**
+     * Gives the graph its own copy of the structures shared with snapshots,
+     * so they can be changed without affecting them.
+     */
+    private void detach() {
+        if (!shared) {
+            return;
+        }
+        
+        Map<IVertex<V>, Map<IVertex<V>, List<IEdge<E, V>>>> sharedConnectingEdges = connectingEdges;
+        
+        vertices = new HashMap<>(vertices);
+        edges = copyOf(edges);
+        outboundEdges = copyOf(outboundEdges);
+        inboundEdges = copyOf(inboundEdges);
+        connectingEdges = new HashMap<>();
+        for (Map.Entry<IVertex<V>, Map<IVertex<V>, List<IEdge<E, V>>>> entry : sharedConnectingEdges.entrySet()) {
+            connectingEdges.put(entry.getKey(), copyOf(entry.getValue()));
+        }
+        shared = false;
+    }
+    
+    /**
+     * Notifies every listener of a change
+     * @param event change to notify
+     */
+    private void fire(Consumer<IDiGraphListener<V, E>> event) {
+        for (IDiGraphListener<V, E> listener : new ArrayList<>(listeners)) {
+            event.accept(listener);
+        }
+    }
+
+    private static <K, E, V> Map<K, List<IEdge<E, V>>> copyOf(Map<K, List<IEdge<E, V>>> edgeLists) {
+        Map<K, List<IEdge<E, V>>> copy = new HashMap<>();
+        for (Map.Entry<K, List<IEdge<E, V>>> entry : edgeLists.entrySet()) {
+            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return (int) (Math.max(expectedSize, 0) / 0.75f) + 1;
     }
 
     private boolean existsVertexWith(V vElement) {
@@ -308,6 +606,166 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
     }
     
 
+    /**
+     * Builder that creates a graph from batches of vertices and edges in a
+     * single step. The elements are only collected when added; build()
+     * validates all of them in one pass and fills a graph with its internal
+     * structures sized for them, skipping the checks and notifications that
+     * each insertion would otherwise do.
+     *
+     * The resulting graph is the same as inserting every vertex and then
+     * every edge, in the order they were added, and follows the same rules.
+     * Like any new graph, it starts at version 0.
+     * @param <V> Type of element stored in the vertices
+     * @param <E> Type of element stored in the edges
+     */
+    public static class Builder<V, E> {
+        
+        private final List<V> vertexElements;
+        private final List<V> edgeOutbounds;
+        private final List<V> edgeInbounds;
+        private final List<E> edgeElements;
+        
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+            this.vertexElements = new ArrayList<>();
+            this.edgeOutbounds = new ArrayList<>();
+            this.edgeInbounds = new ArrayList<>();
+            this.edgeElements = new ArrayList<>();
+        }
+        
+        /**
+         * Adds a vertex with a given element.
+         * @param vElement the element to store at the vertex
+         * @return this builder
+         */
+        public Builder<V, E> addVertex(V vElement) {
+            this.vertexElements.add(vElement);
+            return this;
+        }
+        
+        /**
+         * Adds a vertex for each of the given elements.
+         * @param vElements the elements to store at the vertices
+         * @return this builder
+         */
+        public Builder<V, E> addVertices(Iterable<? extends V> vElements) {
+            for (V vElement : vElements) {
+                this.vertexElements.add(vElement);
+            }
+            return this;
+        }
+        
+        /**
+         * Adds an edge with a given element between the vertices that store
+         * two elements.
+         * @param vElement1 element of the outbound vertex
+         * @param vElement2 element of the inbound vertex
+         * @param edgeElement the element to store in the edge
+         * @return this builder
+         */
+        public Builder<V, E> addEdge(V vElement1, V vElement2, E edgeElement) {
+            this.edgeOutbounds.add(vElement1);
+            this.edgeInbounds.add(vElement2);
+            this.edgeElements.add(edgeElement);
+            return this;
+        }
+        
+        /**
+         * Creates the graph with every added vertex and edge.
+         * @return new graph
+         * @exception IllegalArgumentException if a vertex is repeated or an
+         * edge is repeated with the same direction.
+         * @exception InvalidVertexException if an edge refers to a vertex that
+         * was not added.
+         */
+        public DiGraph<V, E> build() throws InvalidVertexException {
+            DiGraph<V, E> graph = new DiGraph<>(this.vertexElements.size(), this.edgeElements.size());
+            
+            for (V vElement : this.vertexElements) {
+                Vertex<V> newVertex = graph.newVertex(vElement);
+                if (graph.vertices.putIfAbsent(vElement, newVertex) != null) {
+                    throw new IllegalArgumentException("There's already a vertex with this element (" + vElement + ").");
+                }
+                graph.outboundEdges.put(newVertex, new ArrayList<>());
+                graph.inboundEdges.put(newVertex, new ArrayList<>());
+            }
+            
+            for (int i = 0; i < this.edgeElements.size(); ++i) {
+                IVertex<V> u = graph.vertices.get(this.edgeOutbounds.get(i));
+                IVertex<V> v = graph.vertices.get(this.edgeInbounds.get(i));
+                if (u == null) {
+                    throw new InvalidVertexException("No vertex contains " + this.edgeOutbounds.get(i));
+                }
+                if (v == null) {
+                    throw new InvalidVertexException("No vertex contains " + this.edgeInbounds.get(i));
+                }
+                
+                E edgeElement = this.edgeElements.get(i);
+                List<IEdge<E, V>> edgeList = graph.edges.get(edgeElement);
+                if (edgeList == null) {
+                    edgeList = new ArrayList<>(2);
+                    graph.edges.put(edgeElement, edgeList);
+                } else if (edgeList.size() != 1
+                        || edgeList.get(0).vertexOutbound() != v
+                        || edgeList.get(0).vertexInbound() != u) {
+                    throw new IllegalArgumentException("There's already an edge with this element and direction (" + edgeElement + ").");
+                }
+                
+                IEdge<E, V> newEdge = graph.newEdge(edgeElement, u, v);
+                edgeList.add(0, newEdge);
+                graph.linkEdge(u, v, newEdge);
+            }
+            
+            return graph;
+        }
+        
+    }
+
+    /**
+     * Read-only iterator over the vertices or the edges of the graph, which
+     * fails fast when the graph is structurally modified while iterating.
+     * @param <T> Type of the iterated elements
+     */
+    private class ViewIterator<T> implements Iterator<T> {
+        
+        private final Iterator<? extends Iterable<T>> groups;
+        private Iterator<T> current;
+        private final int expectedModCount;
+        
+        /**
+         * Iterates the elements of each of the given groups in turn
+         * @param groups groups iterator
+         */
+        private ViewIterator(Iterator<? extends Iterable<T>> groups) {
+            this.groups = groups;
+            this.current = Collections.emptyIterator();
+            this.expectedModCount = modCount;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("The graph has been modified while iterating.");
+            }
+            while (!current.hasNext() && groups.hasNext()) {
+                current = groups.next().iterator();
+            }
+            return current.hasNext();
+        }
+        
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+        
+    }
+
     /**
      * Checks whether a given vertex is valid and belongs to this graph
      *
@@ -315,32 +773,36 @@ public class DiGraph<V, E> implements IDiGraph<V, E> {
      * @return
      * @throws InvalidVertexException
      */
-    private Vertex checkVertex(IVertex<V> v) throws InvalidVertexException {
+    private Vertex<V> checkVertex(IVertex<V> v) throws InvalidVertexException {
 
-        Vertex vertex;
+        Vertex<V> vertex;
         try {
-            vertex = (Vertex) v;
+            vertex = (Vertex<V>) v;
         } catch (ClassCastException e) {
             throw new InvalidVertexException("Not a vertex.");
         }
 
-        if (!vertices.containsKey((V) vertex.element())) {
+        // Vertices are compared by identity, so this does not hash the element
+        if (!outboundEdges.containsKey(vertex)) {
             throw new InvalidVertexException("Vertex does not belong to this graph.");
         }
 
         return vertex;
     }
 
-    private Edge checkEdge(IEdge<E, V> e) throws InvalidEdgeException {
+    private Edge<E, V> checkEdge(IEdge<E, V> e) throws InvalidEdgeException {
 
-        Edge edge;
+        Edge<E, V> edge;
         try {
-            edge = (Edge) e;
+            edge = (Edge<E, V>) e;
         } catch (ClassCastException ex) {
             throw new InvalidVertexException("Not an adge.");
         }
 
-        if (!edges.containsKey((E) edge.element())) {
+        // Edges are compared by identity, so this does not hash the element
+        Map<IVertex<V>, List<IEdge<E, V>>> outboundConnections = connectingEdges.get(edge.vertexOutbound());
+        if (outboundConnections == null
+                || !outboundConnections.getOrDefault(edge.vertexInbound(), Collections.emptyList()).contains(edge)) {
             throw new InvalidEdgeException("Edge does not belong to this graph.");
         }
 
@@ -12,6 +12,9 @@ public class Edge<E, V> implements IEdge<E, V> {
     private IVertex<V> vertexOutbound;
     private IVertex<V> vertexInbound;
     
+    // Graph state that created the edge, the only one that may change it
+    Object owner;
+    
     /**
      * @param element Element stored in the edge.
      * @param vertexOutbound Edge outbound vertex.
@@ -52,6 +52,17 @@ public interface IDiGraph<V, E> {
     public Iterable<IEdge<E, V>> incidentEdges(IVertex<V> v)
             throws InvalidEdgeException;
 
+    /**
+     * Returns the edges that go from one vertex to another as an iterable
+     * collection.
+     * @param u a vertex (outbound, if digraph)
+     * @param v another vertex (inbound, if digraph)
+     * @return set of edges, empty if the vertices are not adjacent
+     * @exception InvalidVertexException if a vertex is invalid for the graph.
+     */
+    public Iterable<IEdge<E, V>> edgesBetween(IVertex<V> u, IVertex<V> v)
+            throws InvalidVertexException;
+
     /**
      * Given a vertex and an edge, returns the opposite vertex.
      * @param v a vertex
@@ -140,4 +151,33 @@ public interface IDiGraph<V, E> {
      */
     public E replace(IEdge<E, V> e, E newElement) throws InvalidEdgeException;
     
+    /**
+     * Returns the version of the graph, which increases every time a vertex or
+     * an edge is inserted, removed or replaced. Equal versions of the same
+     * graph mean that the graph did not change in between.
+     * @return graph version
+     */
+    public long version();
+    
+    /**
+     * Registers a listener to be notified of every change of the graph.
+     * @param listener listener to add
+     */
+    public void addListener(IDiGraphListener<V, E> listener);
+    
+    /**
+     * Unregisters a listener previously added to the graph.
+     * @param listener listener to remove
+     */
+    public void removeListener(IDiGraphListener<V, E> listener);
+    
+    /**
+     * Returns a snapshot of the current state of the graph, with the same
+     * version and sharing its vertex and edge instances. Later changes to the
+     * graph are not reflected in the snapshot nor the other way around, and the
+     * snapshot does not keep the listeners of the graph.
+     * @return snapshot of the graph
+     */
+    public IDiGraph<V, E> snapshot();
+    
 }
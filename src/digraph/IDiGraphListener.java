@@ -0,0 +1,56 @@
+package digraph;
+
+/**
+ * Listener notified of the structural changes of a graph. Every method is
+ * called after the change has been applied, so the graph already reflects it.
+ * @param <V> Type of element stored in the vertices
+ * @param <E> Type of element stored in the edges
+ */
+public interface IDiGraphListener<V, E> {
+
+    /**
+     * Called when a vertex is inserted.
+     * @param v inserted vertex
+     */
+    public default void vertexInserted(IVertex<V> v) {
+    }
+
+    /**
+     * Called when an edge is inserted.
+     * @param e inserted edge
+     */
+    public default void edgeInserted(IEdge<E, V> e) {
+    }
+
+    /**
+     * Called when a vertex is removed, after its edges have been reported as
+     * removed.
+     * @param v removed vertex
+     */
+    public default void vertexRemoved(IVertex<V> v) {
+    }
+
+    /**
+     * Called when an edge is removed.
+     * @param e removed edge
+     */
+    public default void edgeRemoved(IEdge<E, V> e) {
+    }
+
+    /**
+     * Called when the element of a vertex is replaced.
+     * @param v vertex, already storing the new element
+     * @param oldElement element previously stored in the vertex
+     */
+    public default void vertexReplaced(IVertex<V> v, V oldElement) {
+    }
+
+    /**
+     * Called when the element of an edge is replaced.
+     * @param e edge, already storing the new element
+     * @param oldElement element previously stored in the edge
+     */
+    public default void edgeReplaced(IEdge<E, V> e, E oldElement) {
+    }
+
+}
@@ -0,0 +1,391 @@
+package digraph;
+
+import java.util.Arrays;
+
+/**
+ * Digraph specialized for primitive data, for consumers that only compute over
+ * ids and numeric edge attributes.
+ *
+ * Vertices are identified by an int id chosen by the caller. Each edge stores
+ * an int id and a fixed number of double attributes. Everything is kept in
+ * parallel primitive arrays, with the outbound and inbound edges of each
+ * vertex chained through edge indexes, so neither insertions nor queries box
+ * any value.
+ *
+ * Edges are addressed by their index, from 0 to numEdges() - 1, in insertion
+ * order. The edges of a vertex are iterated as:
+ * <pre>
+ * for (int e = graph.firstOutbound(id); e != -1; e = graph.nextOutbound(e)) { ... }
+ * </pre>
+ */
+public class IntDiGraph {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Attributes
+    private final int numAttributes;
+    private final IdIndex index;
+
+    private int numVertices;
+    private int[] vertexIds;
+    private int[] firstOutbound;
+    private int[] firstInbound;
+
+    private int numEdges;
+    private int[] edgeIds;
+    private int[] sources;
+    private int[] targets;
+    private int[] nextOutbound;
+    private int[] nextInbound;
+    private double[][] attributes;
+
+    /**
+     * Creates an empty graph.
+     * @param numAttributes number of double attributes stored in each edge
+     */
+    public IntDiGraph(int numAttributes) {
+        this(numAttributes, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty graph with room for the expected amount of data.
+     * @param numAttributes number of double attributes stored in each edge
+     * @param expectedVertices expected number of vertices
+     * @param expectedEdges expected number of edges
+     */
+    public IntDiGraph(int numAttributes, int expectedVertices, int expectedEdges) {
+        if (numAttributes < 0) {
+            throw new IllegalArgumentException("The number of attributes cannot be negative.");
+        }
+
+        int vertexCapacity = Math.max(expectedVertices, 1);
+        int edgeCapacity = Math.max(expectedEdges, 1);
+
+        this.numAttributes = numAttributes;
+        this.index = new IdIndex(vertexCapacity);
+
+        this.numVertices = 0;
+        this.vertexIds = new int[vertexCapacity];
+        this.firstOutbound = new int[vertexCapacity];
+        this.firstInbound = new int[vertexCapacity];
+
+        this.numEdges = 0;
+        this.edgeIds = new int[edgeCapacity];
+        this.sources = new int[edgeCapacity];
+        this.targets = new int[edgeCapacity];
+        this.nextOutbound = new int[edgeCapacity];
+        this.nextInbound = new int[edgeCapacity];
+        this.attributes = new double[numAttributes][edgeCapacity];
+    }
+
+    /**
+     * Returns the number of vertices of the graph
+     * @return vertex count
+     */
+    public int numVertices() {
+        return this.numVertices;
+    }
+
+    /**
+     * Returns the number of edges of the graph
+     * @return edge count
+     */
+    public int numEdges() {
+        return this.numEdges;
+    }
+
+    /**
+     * Returns the number of double attributes stored in each edge
+     * @return attribute count
+     */
+    public int numAttributes() {
+        return this.numAttributes;
+    }
+
+    /**
+     * Tests whether there is a vertex with a given id.
+     * @param id vertex id
+     * @return true if the vertex exists
+     */
+    public boolean containsVertex(int id) {
+        return this.index.get(id) != -1;
+    }
+
+    /**
+     * Returns the dense index of a vertex, from 0 to numVertices() - 1, in
+     * insertion order. Useful to keep per vertex data in arrays.
+     * @param id vertex id
+     * @return vertex index
+     * @exception InvalidVertexException if there is no vertex with the id.
+     */
+    public int indexOf(int id) throws InvalidVertexException {
+        int vertex = this.index.get(id);
+        if (vertex == -1) {
+            throw new InvalidVertexException("No vertex with id " + id);
+        }
+        return vertex;
+    }
+
+    /**
+     * Returns the id of the vertex at a given dense index
+     * @param index vertex index
+     * @return vertex id
+     */
+    public int vertexId(int index) {
+        return this.vertexIds[index];
+    }
+
+    /**
+     * Inserts a new vertex with a given id.
+     * @param id vertex id
+     */
+    public void insertVertex(int id) {
+        if (containsVertex(id)) {
+            throw new IllegalArgumentException("There's already a vertex with this id.");
+        }
+
+        if (this.numVertices == this.vertexIds.length) {
+            int capacity = this.vertexIds.length * 2;
+            this.vertexIds = Arrays.copyOf(this.vertexIds, capacity);
+            this.firstOutbound = Arrays.copyOf(this.firstOutbound, capacity);
+            this.firstInbound = Arrays.copyOf(this.firstInbound, capacity);
+        }
+
+        int vertex = this.numVertices++;
+        this.vertexIds[vertex] = id;
+        this.firstOutbound[vertex] = -1;
+        this.firstInbound[vertex] = -1;
+        this.index.put(id, vertex);
+    }
+
+    /**
+     * Inserts a new edge between two vertices, with all attributes set to 0.
+     * @param u outbound vertex id
+     * @param v inbound vertex id
+     * @param edgeId id stored in the edge
+     * @return index of the new edge
+     * @exception InvalidVertexException if a vertex does not exist.
+     */
+    public int insertEdge(int u, int v, int edgeId) throws InvalidVertexException {
+        int vertexOutbound = indexOf(u);
+        int vertexInbound = indexOf(v);
+
+        if (this.numEdges == this.edgeIds.length) {
+            int capacity = this.edgeIds.length * 2;
+            this.edgeIds = Arrays.copyOf(this.edgeIds, capacity);
+            this.sources = Arrays.copyOf(this.sources, capacity);
+            this.targets = Arrays.copyOf(this.targets, capacity);
+            this.nextOutbound = Arrays.copyOf(this.nextOutbound, capacity);
+            this.nextInbound = Arrays.copyOf(this.nextInbound, capacity);
+            for (int a = 0; a < this.numAttributes; ++a) {
+                this.attributes[a] = Arrays.copyOf(this.attributes[a], capacity);
+            }
+        }
+
+        int edge = this.numEdges++;
+        this.edgeIds[edge] = edgeId;
+        this.sources[edge] = vertexOutbound;
+        this.targets[edge] = vertexInbound;
+        for (int a = 0; a < this.numAttributes; ++a) {
+            this.attributes[a][edge] = 0.0;
+        }
+
+        // Link the edge at the head of both adjacency chains
+        this.nextOutbound[edge] = this.firstOutbound[vertexOutbound];
+        this.firstOutbound[vertexOutbound] = edge;
+        this.nextInbound[edge] = this.firstInbound[vertexInbound];
+        this.firstInbound[vertexInbound] = edge;
+
+        return edge;
+    }
+
+    /**
+     * Inserts a new edge between two vertices with the given attributes. The
+     * values are passed in a new array on each call, so loops inserting many
+     * edges can use insertEdge(u, v, edgeId) and setAttribute instead.
+     * @param u outbound vertex id
+     * @param v inbound vertex id
+     * @param edgeId id stored in the edge
+     * @param values attribute values, one per attribute
+     * @return index of the new edge
+     * @exception InvalidVertexException if a vertex does not exist.
+     */
+    public int insertEdge(int u, int v, int edgeId, double... values) throws InvalidVertexException {
+        if (values.length != this.numAttributes) {
+            throw new IllegalArgumentException("Expected " + this.numAttributes + " attribute values.");
+        }
+
+        int edge = insertEdge(u, v, edgeId);
+        for (int a = 0; a < this.numAttributes; ++a) {
+            this.attributes[a][edge] = values[a];
+        }
+        return edge;
+    }
+
+    /**
+     * Returns the first outbound edge of a vertex.
+     * @param id vertex id
+     * @return edge index, or -1 if the vertex has no outbound edges
+     * @exception InvalidVertexException if the vertex does not exist.
+     */
+    public int firstOutbound(int id) throws InvalidVertexException {
+        return this.firstOutbound[indexOf(id)];
+    }
+
+    /**
+     * Returns the outbound edge that follows another one of the same vertex.
+     * @param edge edge index
+     * @return edge index, or -1 if there are no more outbound edges
+     */
+    public int nextOutbound(int edge) {
+        return this.nextOutbound[edge];
+    }
+
+    /**
+     * Returns the first inbound edge of a vertex.
+     * @param id vertex id
+     * @return edge index, or -1 if the vertex has no inbound edges
+     * @exception InvalidVertexException if the vertex does not exist.
+     */
+    public int firstInbound(int id) throws InvalidVertexException {
+        return this.firstInbound[indexOf(id)];
+    }
+
+    /**
+     * Returns the inbound edge that follows another one of the same vertex.
+     * @param edge edge index
+     * @return edge index, or -1 if there are no more inbound edges
+     */
+    public int nextInbound(int edge) {
+        return this.nextInbound[edge];
+    }
+
+    /**
+     * Returns the id stored in an edge
+     * @param edge edge index
+     * @return edge id
+     */
+    public int edgeId(int edge) {
+        return this.edgeIds[edge];
+    }
+
+    /**
+     * Returns the outbound vertex of an edge
+     * @param edge edge index
+     * @return vertex id
+     */
+    public int source(int edge) {
+        return this.vertexIds[this.sources[edge]];
+    }
+
+    /**
+     * Returns the inbound vertex of an edge
+     * @param edge edge index
+     * @return vertex id
+     */
+    public int target(int edge) {
+        return this.vertexIds[this.targets[edge]];
+    }
+
+    /**
+     * Returns an attribute value of an edge
+     * @param edge edge index
+     * @param attribute attribute index
+     * @return attribute value
+     */
+    public double attribute(int edge, int attribute) {
+        return this.attributes[attribute][edge];
+    }
+
+    /**
+     * Replaces an attribute value of an edge
+     * @param edge edge index
+     * @param attribute attribute index
+     * @param value new attribute value
+     */
+    public void setAttribute(int edge, int attribute, double value) {
+        this.attributes[attribute][edge] = value;
+    }
+
+    /**
+     * Tests whether two vertices are adjacent.
+     * @param u outbound vertex id
+     * @param v inbound vertex id
+     * @return true if there is an edge from u to v
+     * @exception InvalidVertexException if a vertex does not exist.
+     */
+    public boolean areAdjacent(int u, int v) throws InvalidVertexException {
+        int vertexInbound = indexOf(v);
+        for (int e = firstOutbound(u); e != -1; e = this.nextOutbound[e]) {
+            if (this.targets[e] == vertexInbound) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IntDiGraph with %d vertices and %d edges", this.numVertices, this.numEdges);
+    }
+
+    /**
+     * Open addressing hash index from vertex ids to dense vertex indexes.
+     */
+    private static class IdIndex {
+
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        private IdIndex(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) * 2;
+            this.keys = new int[capacity];
+            this.values = new int[capacity];
+            Arrays.fill(this.values, -1);
+            this.size = 0;
+        }
+
+        private int slot(int key) {
+            int hash = key * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & (this.keys.length - 1);
+        }
+
+        private int get(int key) {
+            for (int i = slot(key); this.values[i] != -1; i = (i + 1) & (this.keys.length - 1)) {
+                if (this.keys[i] == key) {
+                    return this.values[i];
+                }
+            }
+            return -1;
+        }
+
+        private void put(int key, int value) {
+            if ((this.size + 1) * 2 > this.keys.length) {
+                int[] oldKeys = this.keys;
+                int[] oldValues = this.values;
+                this.keys = new int[oldKeys.length * 2];
+                this.values = new int[oldKeys.length * 2];
+                Arrays.fill(this.values, -1);
+                this.size = 0;
+                for (int i = 0; i < oldKeys.length; ++i) {
+                    if (oldValues[i] != -1) {
+                        put(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+
+            int i = slot(key);
+            while (this.values[i] != -1 && this.keys[i] != key) {
+                i = (i + 1) & (this.keys.length - 1);
+            }
+            if (this.values[i] == -1) {
+                ++this.size;
+            }
+            this.keys[i] = key;
+            this.values[i] = value;
+        }
+
+    }
+
+}
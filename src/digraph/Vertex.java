@@ -9,6 +9,9 @@ public class Vertex<V> implements IVertex<V> {
     // Attributes
     private V element;
     
+    // Graph state that created the vertex, the only one that may change it
+    Object owner;
+    
     /**
      * @param element Element stored in the vertex.
      */
@@ -41,7 +41,7 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.scene.transform.Scale;
 import digraph.IEdge;
-import digraph.DiGraph;
+import digraph.IDiGraph;
 import digraph.IVertex;
 
 /**
@@ -81,12 +81,12 @@ public class GraphPanel<V, E> extends Pane {
         END CONFIGURATION.
     */
     
-    private final DiGraph<V, E> theGraph;
+    private final IDiGraph<V, E> theGraph;
     private final VertexPlacementStrategy placementStrategy;
     private Map<IVertex<V>, GraphVertex> graphVertexMap;
     private Map<IEdge<E, V>, GraphEdge> graphEdgeMap;
 
-    public GraphPanel(DiGraph<V, E> theGraph, VertexPlacementStrategy placementStrategy) {
+    public GraphPanel(IDiGraph<V, E> theGraph, VertexPlacementStrategy placementStrategy) {
         if (theGraph == null) {
             throw new IllegalArgumentException("The graph cannot be null.");
         }
@@ -317,9 +317,11 @@ public class GraphPanel<V, E> extends Pane {
     private int getTotalEdgesBetween(IVertex<V> v, IVertex<V> u) {
 
         int count = 0;
-        for (IEdge<E, V> edge : theGraph.edges()) {
-            if (edge.vertexOutbound() == v && edge.vertexInbound()== u
-                    || edge.vertexOutbound() == u && edge.vertexInbound() == v) {
+        for (IEdge<E, V> edge : theGraph.edgesBetween(v, u)) {
+            count++;
+        }
+        if (v != u) {
+            for (IEdge<E, V> edge : theGraph.edgesBetween(u, v)) {
                 count++;
             }
         }
@@ -0,0 +1,143 @@
+package biologicalparkticketsystem.model.course;
+
+import biologicalparkticketsystem.ConfigManager;
+import biologicalparkticketsystem.LoggerManager;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CourseManagerTest {
+
+    private MapManager mapManager;
+    private CourseManager courseManager;
+    private PointOfInterest lobos, prado, fonte, papagaios;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        ConfigManager.getInstance().init();
+
+        // Log to a temporary file instead of the application log
+        File logFile = File.createTempFile("course", ".log");
+        logFile.deleteOnExit();
+        ConfigManager.getInstance().getProperties().setProperty("logger.file", logFile.getPath());
+        ConfigManager.getInstance().getProperties().setProperty("logger.level", "SEVERE");
+        LoggerManager.getInstance().init();
+    }
+
+    @Before
+    public void setUp() throws MapManagerException {
+        mapManager = new MapManager();
+        mapManager.loadMapFile("./maps/mapa0.dat");
+        courseManager = new CourseManager(mapManager);
+
+        lobos = mapManager.getPointOfInterestById(2);
+        prado = mapManager.getPointOfInterestById(3);
+        fonte = mapManager.getPointOfInterestById(4);
+        papagaios = mapManager.getPointOfInterestById(8);
+    }
+
+    @Test
+    public void testRepeatedSelection() throws CourseManagerException {
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, Arrays.asList(lobos, prado, fonte));
+        CalculatedPath calculatedPath = courseManager.getCalculatedPath();
+
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, Arrays.asList(lobos, papagaios));
+        assertNotSame("A different selection was not calculated", calculatedPath, courseManager.getCalculatedPath());
+
+        // The same points in another order are the same selection
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, Arrays.asList(fonte, lobos, prado));
+        assertSame("Repeated selection was calculated again", calculatedPath, courseManager.getCalculatedPath());
+        assertEquals("Historic is not correct", 2, courseManager.countCalculatedCourses());
+
+        courseManager.minimumCriteriaPath(new CriteriaStrategyDistance(), false, Arrays.asList(lobos, prado, fonte));
+        assertNotSame("Another criteria used the cached path", calculatedPath, courseManager.getCalculatedPath());
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), true, Arrays.asList(lobos, prado, fonte));
+        assertNotSame("Another navigability used the cached path", calculatedPath, courseManager.getCalculatedPath());
+    }
+
+    @Test
+    public void testRepeatedSelectionAfterUpdate() throws CourseManagerException {
+        List<PointOfInterest> mustVisitPois = new ArrayList<>(Arrays.asList(lobos, prado));
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois);
+        CalculatedPath calculatedPath = courseManager.getCalculatedPath();
+
+        // A point is selected and then unselected, as the view does
+        mustVisitPois.add(fonte);
+        assertTrue("Single point change was not repaired",
+                courseManager.updateMinimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois));
+        assertEquals("Repaired path is not correct", mustVisitPois.size(), courseManager.getCalculatedPath().getMustVisit().size());
+        mustVisitPois.remove(fonte);
+        assertTrue("Single point change was not repaired",
+                courseManager.updateMinimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois));
+        assertSame("Repeated selection was calculated again", calculatedPath, courseManager.getCalculatedPath());
+        assertEquals("Repaired paths were added to the historic", 0, courseManager.countCalculatedCourses());
+
+        // The repaired path was not cached, so its selection is fully calculated
+        mustVisitPois.add(fonte);
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois);
+        CalculatedPath fullPath = courseManager.getCalculatedPath();
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois);
+        assertSame("Repeated selection was calculated again", fullPath, courseManager.getCalculatedPath());
+    }
+
+    @Test
+    public void testRepeatedSelectionAfterMapChange() throws CourseManagerException, MapManagerException {
+        List<PointOfInterest> mustVisitPois = Arrays.asList(lobos, prado, fonte);
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois);
+        CalculatedPath calculatedPath = courseManager.getCalculatedPath();
+
+        mapManager.loadMapFile("./maps/mapa0.dat");
+        mustVisitPois = Arrays.asList(mapManager.getPointOfInterestById(2),
+                mapManager.getPointOfInterestById(3),
+                mapManager.getPointOfInterestById(4));
+        courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), false, mustVisitPois);
+        assertNotSame("Path of the previous map was used", calculatedPath, courseManager.getCalculatedPath());
+        assertEquals("Cost is not correct", calculatedPath.getCost(), courseManager.getCalculatedPath().getCost());
+    }
+
+    @Test
+    public void testParetoPaths() throws CourseManagerException {
+        List<PointOfInterest> mustVisitPois = Arrays.asList(lobos, prado, fonte, papagaios);
+        for (boolean navigability : new boolean[] { false, true }) {
+            CalculatedParetoPaths paretoPaths = courseManager.minimumParetoPaths(navigability, mustVisitPois);
+            List<ParetoPath> paths = paretoPaths.getPaths();
+            assertFalse("No pareto path was calculated", paths.isEmpty());
+            for (ParetoPath path : paths) {
+                for (ParetoPath other : paths) {
+                    assertFalse("Pareto path is dominated", other != path && other.dominates(path));
+                }
+            }
+
+            // The extremes are the courses of minimum cost and of minimum distance
+            courseManager.minimumCriteriaPath(new CriteriaStrategyCost(), navigability, mustVisitPois);
+            assertEquals("Cost is not correct", courseManager.getCalculatedPath().getCost(), paretoPaths.getCheapest().getCostEuros());
+            courseManager.minimumCriteriaPath(new CriteriaStrategyDistance(), navigability, mustVisitPois);
+            assertEquals("Distance is not correct", courseManager.getCalculatedPath().getCost(), paretoPaths.getShortest().getDistance());
+            assertTrue("Balanced path is not a pareto path", paths.contains(paretoPaths.getBalanced()));
+        }
+    }
+
+    @Test
+    public void testBalancedParetoPath() {
+        List<PointOfInterest> empty = new ArrayList<>();
+        ParetoPath cheapest = new ParetoPath(false, 10, 900, empty, new ArrayList<>(), empty, null);
+        ParetoPath balanced = new ParetoPath(false, 12, 500, empty, new ArrayList<>(), empty, null);
+        ParetoPath shortest = new ParetoPath(false, 30, 100, empty, new ArrayList<>(), empty, null);
+        CalculatedParetoPaths paretoPaths = new CalculatedParetoPaths(Arrays.asList(shortest, balanced, cheapest));
+        assertEquals("Pareto paths are not sorted", Arrays.asList(cheapest, balanced, shortest), paretoPaths.getPaths());
+        assertSame("Cheapest path is not correct", cheapest, paretoPaths.getCheapest());
+        assertSame("Shortest path is not correct", shortest, paretoPaths.getShortest());
+        assertSame("Balanced path is not correct", balanced, paretoPaths.getBalanced());
+
+        // A single path is every extreme
+        paretoPaths = new CalculatedParetoPaths(Arrays.asList(balanced));
+        assertSame("Balanced path is not correct", balanced, paretoPaths.getBalanced());
+    }
+
+}
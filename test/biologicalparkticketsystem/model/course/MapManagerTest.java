@@ -0,0 +1,94 @@
+package biologicalparkticketsystem.model.course;
+
+import biologicalparkticketsystem.ConfigManager;
+import biologicalparkticketsystem.LoggerManager;
+import digraph.IEdge;
+import digraph.IVertex;
+import digraph.IntDiGraph;
+import java.io.File;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MapManagerTest {
+
+    private MapManager mapManager;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        ConfigManager.getInstance().init();
+
+        // Log to a temporary file instead of the application log
+        File logFile = File.createTempFile("map", ".log");
+        logFile.deleteOnExit();
+        ConfigManager.getInstance().getProperties().setProperty("logger.file", logFile.getPath());
+        ConfigManager.getInstance().getProperties().setProperty("logger.level", "SEVERE");
+        LoggerManager.getInstance().init();
+    }
+
+    @Before
+    public void setUp() throws MapManagerException {
+        mapManager = new MapManager();
+        mapManager.loadMapFile("./maps/mapa0.dat");
+    }
+
+    @Test
+    public void testIntDiGraph() {
+        IntDiGraph intDiGraph = mapManager.getIntDiGraph();
+        assertEquals("Number of vertices is not correct", mapManager.getDiGraph().numVertices(), intDiGraph.numVertices());
+        assertEquals("Number of edges is not correct", mapManager.getCompactDiGraph().numEdges(), intDiGraph.numEdges());
+        for (IVertex<PointOfInterest> vertex : mapManager.getDiGraph().vertices()) {
+            assertTrue("Vertex is missing", intDiGraph.containsVertex(vertex.element().getPoiId()));
+        }
+
+        int count = 0;
+        for (IEdge<Connection, PointOfInterest> edge : mapManager.getDiGraph().edges()) {
+            ++count;
+            Connection connection = edge.element();
+            int target = edge.vertexInbound().element().getPoiId();
+            int found = -1;
+            for (int e = intDiGraph.firstOutbound(edge.vertexOutbound().element().getPoiId()); e != -1; e = intDiGraph.nextOutbound(e)) {
+                if (intDiGraph.edgeId(e) == connection.getConnectionId() && intDiGraph.target(e) == target) {
+                    found = e;
+                }
+            }
+            assertNotEquals("Edge is missing", -1, found);
+            assertEquals("Cost is not correct", connection.getCostEuros(), intDiGraph.attribute(found, MapManager.ATTRIBUTE_COST), 0.0);
+            assertEquals("Distance is not correct", connection.getDistance(), intDiGraph.attribute(found, MapManager.ATTRIBUTE_DISTANCE), 0.0);
+            assertEquals("Navigability is not correct", connection.getNavigability() ? 1 : 0, intDiGraph.attribute(found, MapManager.ATTRIBUTE_NAVIGABILITY), 0.0);
+        }
+        assertEquals("Number of edges is not correct", count, intDiGraph.numEdges());
+    }
+
+    @Test
+    public void testLandmarks() {
+        ICriteriaStrategy cost = new CriteriaStrategyCost();
+        Landmarks landmarks = mapManager.getLandmarks(mapManager.getCompactDiGraph(), cost, false);
+        assertNotNull("Landmarks were not built", landmarks);
+        assertSame("Landmarks were built again", landmarks, mapManager.getLandmarks(mapManager.getCompactDiGraph(), cost, true));
+
+        // Landmarks of weighted criteria are not kept, but are built when asked
+        ICriteriaStrategy weighted = new CriteriaStrategyWeighted(1.0, 0.1);
+        assertNull("Landmarks of weighted criteria were kept", mapManager.getLandmarks(mapManager.getCompactDiGraph(), weighted, false));
+        assertNotNull("Landmarks were not built when asked", mapManager.getLandmarks(mapManager.getCompactDiGraph(), weighted, true));
+    }
+
+    @Test
+    public void testIntDiGraphVersion() throws MapManagerException {
+        IntDiGraph intDiGraph = mapManager.getIntDiGraph();
+        assertSame("Int digraph was built again", intDiGraph, mapManager.getIntDiGraph());
+
+        // Loading the map again gives a new version
+        mapManager.loadMapFile("./maps/mapa0.dat");
+        IntDiGraph reloaded = mapManager.getIntDiGraph();
+        assertNotSame("Int digraph of the previous map was used", intDiGraph, reloaded);
+        assertEquals("Number of edges is not correct", intDiGraph.numEdges(), reloaded.numEdges());
+
+        PointOfInterest poi = new PointOfInterest(100, "Lago");
+        mapManager.getDiGraph().insertVertex(poi);
+        assertTrue("Int digraph did not follow the digraph", mapManager.getIntDiGraph().containsVertex(100));
+    }
+
+}
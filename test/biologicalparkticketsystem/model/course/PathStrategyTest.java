@@ -0,0 +1,169 @@
+package biologicalparkticketsystem.model.course;
+
+import digraph.CompactDiGraph;
+import digraph.DiGraph;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PathStrategyTest {
+
+    private static final int SIDE = 6;
+    private static final ICriteriaStrategy[] CRITERIA = { new CriteriaStrategyCost(), new CriteriaStrategyDistance() };
+
+    private CompactDiGraph<PointOfInterest, Connection> graph;
+    private ConnectionBridge bridge;
+    private int corner, oppositeCorner, deadEnd;
+
+    @Before
+    public void setUp() {
+        DiGraph.Builder<PointOfInterest, Connection> builder = new DiGraph.Builder<>();
+        PointOfInterest[] pois = new PointOfInterest[SIDE * SIDE + 2];
+        for (int i = 0; i < pois.length; ++i) {
+            pois[i] = new PointOfInterest(i + 1, "Point " + (i + 1));
+            builder.addVertex(pois[i]);
+        }
+
+        // Grid of two way paths, some of them closed to bicycles
+        Random random = new Random(7);
+        int connectionId = 1;
+        for (int row = 0; row < SIDE; ++row) {
+            for (int column = 0; column < SIDE; ++column) {
+                int poi = row * SIDE + column;
+                if (column + 1 < SIDE) {
+                    addPath(builder, pois[poi], pois[poi + 1], connectionId++, random);
+                }
+                if (row + 1 < SIDE) {
+                    addPath(builder, pois[poi], pois[poi + SIDE], connectionId++, random);
+                }
+            }
+        }
+
+        // One way bridge across the grid, to a point that cannot be left and none to the last point
+        bridge = new ConnectionBridge(connectionId++, "Bridge", 1, 1, true);
+        builder.addEdge(pois[0], pois[SIDE * SIDE - 1], bridge);
+        builder.addEdge(pois[SIDE], pois[SIDE * SIDE], new ConnectionBridge(connectionId++, "Dead end", 5, 50, true));
+
+        graph = new CompactDiGraph<>(builder.build(), Connection::getNavigability);
+        corner = idOf(pois[0]);
+        oppositeCorner = idOf(pois[SIDE * SIDE - 1]);
+        deadEnd = idOf(pois[SIDE * SIDE]);
+    }
+
+    private static void addPath(DiGraph.Builder<PointOfInterest, Connection> builder,
+            PointOfInterest poi1,
+            PointOfInterest poi2,
+            int id,
+            Random random) {
+        Connection path = new ConnectionPath(id, "Path " + id, 1 + random.nextInt(20), 10 + random.nextInt(190), random.nextInt(10) < 7);
+        builder.addEdge(poi1, poi2, path);
+        builder.addEdge(poi2, poi1, path);
+    }
+
+    private int idOf(PointOfInterest poi) {
+        for (int vertex = 0; vertex < graph.numVertices(); ++vertex) {
+            if (graph.vertex(vertex).element() == poi) {
+                return vertex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Asserts that a strategy finds paths with the same costs as Dijkstra
+     * between every pair of vertices, made only of edges of the digraph
+     */
+    private void assertSameAsDijkstra(IPathStrategy strategy, double[] weights, boolean navigability) {
+        IPathStrategy dijkstra = new PathStrategyDijkstra(graph, weights, navigability, graph.numVertices());
+        for (int origin = 0; origin < graph.numVertices(); ++origin) {
+            for (int destination = 0; destination < graph.numVertices(); ++destination) {
+                double cost = dijkstra.getCost(origin, destination);
+                assertEquals("Cost is not correct", cost, strategy.getCost(origin, destination), 1e-9);
+
+                int[] path = strategy.getPath(origin, destination);
+                if (cost == Double.POSITIVE_INFINITY) {
+                    assertNull("Path of unreachable vertices is not null", path);
+                    continue;
+                }
+                assertNotNull("Path is null", path);
+                int vertex = origin;
+                double pathCost = 0.0;
+                for (int edge : path) {
+                    assertTrue("Path has an edge that is not in the digraph", edge >= 0 && edge < graph.numEdges());
+                    assertEquals("Path is not connected", vertex, graph.source(edge));
+                    assertTrue("Path has an edge closed to bicycles", !navigability || graph.isNavigable(edge));
+                    pathCost += weights[edge];
+                    vertex = graph.target(edge);
+                }
+                assertEquals("Path does not reach the destination", destination, vertex);
+                assertEquals("Path cost is not correct", cost, pathCost, 1e-9);
+            }
+        }
+    }
+
+    private boolean usesBridge(int[] path) {
+        for (int edge : path) {
+            if (graph.edge(edge).element() == bridge) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Asserts that a strategy crosses the one way bridge only forwards
+     */
+    private void assertBridge(IPathStrategy strategy) {
+        int[] path = strategy.getPath(corner, oppositeCorner);
+        assertEquals("One way bridge was not used", 1, path.length);
+        assertTrue("One way bridge was not used", usesBridge(path));
+        int[] back = strategy.getPath(oppositeCorner, corner);
+        assertTrue("One way bridge was used backwards", back == null || !usesBridge(back));
+    }
+
+    @Test
+    public void testContraction() {
+        for (ICriteriaStrategy criteria : CRITERIA) {
+            double[] weights = graph.weights(criteria::getEdgeWeight);
+            for (boolean navigability : new boolean[] { false, true }) {
+                IPathStrategy contraction = new PathStrategyContraction(new ContractionHierarchy(graph, weights, navigability));
+                assertSameAsDijkstra(contraction, weights, navigability);
+
+                assertBridge(contraction);
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarks() {
+        for (ICriteriaStrategy criteria : CRITERIA) {
+            double[] weights = graph.weights(criteria::getEdgeWeight);
+            Landmarks landmarks = new Landmarks(graph, weights, 4);
+            for (boolean navigability : new boolean[] { false, true }) {
+                IPathStrategy astar = new PathStrategyLandmarks(graph, weights, navigability, landmarks);
+                assertSameAsDijkstra(astar, weights, navigability);
+
+                assertBridge(astar);
+            }
+        }
+    }
+
+    @Test
+    public void testBidirectional() {
+        for (ICriteriaStrategy criteria : CRITERIA) {
+            double[] weights = graph.weights(criteria::getEdgeWeight);
+            for (boolean navigability : new boolean[] { false, true }) {
+                IPathStrategy bidirectional = new PathStrategyBidirectional(graph, weights, navigability);
+                assertSameAsDijkstra(bidirectional, weights, navigability);
+
+                assertEquals("Path to the origin is not empty", 0, bidirectional.getPath(corner, corner).length);
+                assertEquals("Cost to the origin is not zero", 0.0, bidirectional.getCost(corner, corner), 0.0);
+                assertNull("Dead end can be left", bidirectional.getPath(deadEnd, corner));
+                assertEquals("Dead end can be left", Double.POSITIVE_INFINITY, bidirectional.getCost(deadEnd, corner), 0.0);
+                assertBridge(bidirectional);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+package biologicalparkticketsystem.model.course;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TourSolverTest {
+
+    private static double[][] randomCosts(int points, Random random) {
+        double[][] costs = new double[points + 1][points + 1];
+        for (int from = 0; from < costs.length; ++from) {
+            for (int to = 0; to < costs.length; ++to) {
+                costs[from][to] = from == to ? 0.0 : 1 + random.nextInt(100);
+            }
+        }
+        return costs;
+    }
+
+    private static double tourCost(double[][] costs, int[] order) {
+        double cost = 0.0;
+        int from = 0;
+        for (int point : order) {
+            cost += costs[from][point];
+            from = point;
+        }
+        return cost + costs[from][0];
+    }
+
+    /**
+     * Method to find the cost and distance of every tour and choice of legs,
+     * keeping the ones no other is at least as good as in both
+     */
+    private static List<double[]> bruteForceFrontier(double[][][] legCosts, double[][][] legDistances) {
+        List<double[]> values = new ArrayList<>();
+        int[] order = new int[legCosts.length - 1];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i + 1;
+        }
+        permute(legCosts, legDistances, order, 0, values);
+
+        List<double[]> frontier = new ArrayList<>();
+        for (double[] value : values) {
+            boolean dominated = false;
+            for (double[] other : values) {
+                if (other[0] <= value[0] && other[1] <= value[1] && (other[0] < value[0] || other[1] < value[1])) {
+                    dominated = true;
+                }
+            }
+            boolean repeated = false;
+            for (double[] kept : frontier) {
+                repeated |= kept[0] == value[0] && kept[1] == value[1];
+            }
+            if (!dominated && !repeated) {
+                frontier.add(value);
+            }
+        }
+        frontier.sort((a, b) -> Double.compare(a[0], b[0]));
+        return frontier;
+    }
+
+    private static void permute(double[][][] legCosts, double[][][] legDistances, int[] order, int index, List<double[]> values) {
+        if (index == order.length) {
+            addLegChoices(legCosts, legDistances, order, 0, 0, 0.0, 0.0, values);
+            return;
+        }
+        for (int i = index; i < order.length; ++i) {
+            int swap = order[index];
+            order[index] = order[i];
+            order[i] = swap;
+            permute(legCosts, legDistances, order, index + 1, values);
+            order[i] = order[index];
+            order[index] = swap;
+        }
+    }
+
+    private static void addLegChoices(double[][][] legCosts, double[][][] legDistances, int[] order,
+            int index, int from, double cost, double distance, List<double[]> values) {
+        int to = index < order.length ? order[index] : 0;
+        for (int leg = 0; leg < legCosts[from][to].length; ++leg) {
+            double legCost = cost + legCosts[from][to][leg];
+            double legDistance = distance + legDistances[from][to][leg];
+            if (index == order.length) {
+                values.add(new double[] { legCost, legDistance });
+            } else {
+                addLegChoices(legCosts, legDistances, order, index + 1, to, legCost, legDistance, values);
+            }
+        }
+    }
+
+    @Test
+    public void testParetoFrontier() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 40; ++trial) {
+            int points = 1 + random.nextInt(5);
+            double[][][] legCosts = new double[points + 1][points + 1][];
+            double[][][] legDistances = new double[points + 1][points + 1][];
+            for (int from = 0; from <= points; ++from) {
+                for (int to = 0; to <= points; ++to) {
+                    int legs = from == to ? 0 : 1 + random.nextInt(2);
+                    legCosts[from][to] = new double[legs];
+                    legDistances[from][to] = new double[legs];
+                    for (int leg = 0; leg < legs; ++leg) {
+                        legCosts[from][to][leg] = random.nextInt(10);
+                        legDistances[from][to][leg] = random.nextInt(10);
+                    }
+                }
+            }
+
+            List<TourSolverPareto.Tour> tours = new TourSolverPareto().solve(legCosts, legDistances, progress -> { });
+            List<double[]> frontier = bruteForceFrontier(legCosts, legDistances);
+            assertEquals("Number of tours is not correct", frontier.size(), tours.size());
+            for (int i = 0; i < tours.size(); ++i) {
+                TourSolverPareto.Tour tour = tours.get(i);
+                assertEquals("Tour cost is not correct", frontier.get(i)[0], tour.getCost(), 0.0);
+                assertEquals("Tour distance is not correct", frontier.get(i)[1], tour.getDistance(), 0.0);
+
+                // The order and legs of the tour add up to its cost and distance
+                double cost = 0.0;
+                double distance = 0.0;
+                int from = 0;
+                for (int j = 0; j <= points; ++j) {
+                    int to = j < points ? tour.getOrder()[j] : 0;
+                    cost += legCosts[from][to][tour.getLegs()[j]];
+                    distance += legDistances[from][to][tour.getLegs()[j]];
+                    from = to;
+                }
+                assertEquals("Tour legs are not correct", tour.getCost(), cost, 0.0);
+                assertEquals("Tour legs are not correct", tour.getDistance(), distance, 0.0);
+
+                for (TourSolverPareto.Tour other : tours) {
+                    assertFalse("Tour is dominated", other != tour
+                            && other.getCost() <= tour.getCost() && other.getDistance() <= tour.getDistance());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParetoSingleCost() {
+        Random random = new Random(5);
+        for (int points = 1; points <= 9; ++points) {
+            double[][] costs = randomCosts(points, random);
+            assertEquals("Tour cost is not correct", tourCost(costs, new TourSolverHeldKarp().solve(costs)),
+                    tourCost(costs, new TourSolverPareto().solve(costs)), 1e-9);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParetoMaxPoints() {
+        new TourSolverPareto().solve(randomCosts(TourSolverPareto.MAX_POINTS + 1, new Random(1)));
+    }
+
+    @Test
+    public void testBranchAndBound() {
+        Random random = new Random(3);
+        TourSolverBranchAndBound solver = new TourSolverBranchAndBound(new TourSolverHeuristic(10), 10000);
+        for (int trial = 0; trial < 20; ++trial) {
+            double[][] costs = randomCosts(1 + random.nextInt(10), random);
+            TourSolverBranchAndBound.Result result = solver.search(costs, progress -> { });
+            assertTrue("Search was not proved", result.isProved());
+            assertEquals("Tour cost is not correct", tourCost(costs, new TourSolverHeldKarp().solve(costs)),
+                    tourCost(costs, result.getOrder()), 1e-9);
+        }
+    }
+
+    @Test
+    public void testBranchAndBoundExpired() {
+        double[][] costs = randomCosts(12, new Random(9));
+        int[] seed = new int[costs.length - 1];
+        for (int i = 0; i < seed.length; ++i) {
+            seed[i] = i + 1;
+        }
+
+        // Without time left the search keeps the order of the seed solver
+        TourSolverBranchAndBound.Result result = new TourSolverBranchAndBound(matrix -> seed.clone(), 0)
+                .search(costs, progress -> { });
+        assertFalse("Expired search was proved", result.isProved());
+        assertArrayEquals("Seed order was not kept", seed, result.getOrder());
+    }
+
+    @Test
+    public void testBranchAndBoundInterrupted() {
+        double[][] costs = randomCosts(16, new Random(13));
+        TourSolverBranchAndBound solver = new TourSolverBranchAndBound(new TourSolverHeuristic(10), 60000);
+        Thread.currentThread().interrupt();
+        try {
+            solver.solve(costs);
+            fail("Interrupted search was not cancelled");
+        } catch (CancellationException ex) {
+            assertTrue("Interrupt was not kept", Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package digraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompactDiGraphTest {
+    
+    private DiGraph<String, String> digraph;
+    private CompactDiGraph<String, String> compact;
+    private IVertex<String> vA, vB, vC, vD;
+    private IEdge<String, String> ea, eb, ec, ed;
+    
+    @Before
+    public void setUp() {
+        digraph = new DiGraph<>();
+        
+        // Add vertices
+        vA = digraph.insertVertex("A");
+        vB = digraph.insertVertex("B");
+        vC = digraph.insertVertex("C");
+        vD = digraph.insertVertex("D");
+        
+        // Add edges
+        ea = digraph.insertEdge(vA, vB, "a");
+        eb = digraph.insertEdge(vA, vC, "bb");
+        ec = digraph.insertEdge(vC, vA, "ccc");
+        ed = digraph.insertEdge(vB, vC, "dddd");
+        
+        compact = new CompactDiGraph<>(digraph, element -> element.length() % 2 == 0);
+    }
+
+    /**
+     * Test of numVertices and numEdges methods, of class CompactDiGraph.
+     */
+    @Test
+    public void testSize() {
+        assertEquals("Number of vertices is not correct", 4, compact.numVertices());
+        assertEquals("Number of edges is not correct", 4, compact.numEdges());
+    }
+
+    /**
+     * Test of idOf and vertex methods, of class CompactDiGraph.
+     */
+    @Test
+    public void testVertexIds() {
+        for (IVertex<String> vertex : digraph.vertices()) {
+            assertSame("Vertex id is not correct", vertex, compact.vertex(compact.idOf(vertex)));
+        }
+    }
+
+    /**
+     * Test of outboundStart, outboundEnd, source and target methods, of class
+     * CompactDiGraph.
+     */
+    @Test
+    public void testOutboundEdges() {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        
+        // Test vA
+        listEdges.clear();
+        listEdges.add(ea);
+        listEdges.add(eb);
+        assertEquals("Outbound edges from vertex A are not correct", listEdges, outboundEdges(vA));
+        
+        // Test vB
+        listEdges.clear();
+        listEdges.add(ed);
+        assertEquals("Outbound edges from vertex B are not correct", listEdges, outboundEdges(vB));
+        
+        // Test vC
+        listEdges.clear();
+        listEdges.add(ec);
+        assertEquals("Outbound edges from vertex C are not correct", listEdges, outboundEdges(vC));
+        
+        // Test vD
+        listEdges.clear();
+        assertEquals("Outbound edges from vertex D are not correct", listEdges, outboundEdges(vD));
+        
+        for (int e = 0; e < compact.numEdges(); ++e) {
+            assertSame("Edge source is not correct", compact.edge(e).vertexOutbound(), compact.vertex(compact.source(e)));
+            assertSame("Edge target is not correct", compact.edge(e).vertexInbound(), compact.vertex(compact.target(e)));
+        }
+    }
+
+    /**
+     * Test of inboundStart, inboundEnd and inboundEdge methods, of class
+     * CompactDiGraph.
+     */
+    @Test
+    public void testInboundEdges() {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        
+        // Test vA
+        listEdges.clear();
+        listEdges.add(ec);
+        assertEquals("Inbound edges to vertex A are not correct", listEdges, inboundEdges(vA));
+        
+        // Test vB
+        listEdges.clear();
+        listEdges.add(ea);
+        assertEquals("Inbound edges to vertex B are not correct", listEdges, inboundEdges(vB));
+        
+        // Test vC
+        listEdges.clear();
+        listEdges.add(eb);
+        listEdges.add(ed);
+        assertEquals("Inbound edges to vertex C are not correct", listEdges, inboundEdges(vC));
+        
+        // Test vD
+        listEdges.clear();
+        assertEquals("Inbound edges to vertex D are not correct", listEdges, inboundEdges(vD));
+    }
+
+    /**
+     * Test of the navigable outbound and inbound indexes, of class
+     * CompactDiGraph.
+     */
+    @Test
+    public void testNavigableEdges() {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        
+        // Test vA
+        listEdges.clear();
+        listEdges.add(eb);
+        assertEquals("Navigable outbound edges from vertex A are not correct", listEdges, navigableOutboundEdges(vA));
+        listEdges.clear();
+        assertEquals("Navigable inbound edges to vertex A are not correct", listEdges, navigableInboundEdges(vA));
+        
+        // Test vB
+        listEdges.clear();
+        listEdges.add(ed);
+        assertEquals("Navigable outbound edges from vertex B are not correct", listEdges, navigableOutboundEdges(vB));
+        listEdges.clear();
+        assertEquals("Navigable inbound edges to vertex B are not correct", listEdges, navigableInboundEdges(vB));
+        
+        // Test vC
+        listEdges.clear();
+        assertEquals("Navigable outbound edges from vertex C are not correct", listEdges, navigableOutboundEdges(vC));
+        listEdges.add(eb);
+        listEdges.add(ed);
+        assertEquals("Navigable inbound edges to vertex C are not correct", listEdges, navigableInboundEdges(vC));
+        
+        // Test vD
+        listEdges.clear();
+        assertEquals("Navigable outbound edges from vertex D are not correct", listEdges, navigableOutboundEdges(vD));
+        assertEquals("Navigable inbound edges to vertex D are not correct", listEdges, navigableInboundEdges(vD));
+    }
+
+    /**
+     * Test of isNavigable and weights methods, of class CompactDiGraph.
+     */
+    @Test
+    public void testEdgeAttributes() {
+        double[] weights = compact.weights(element -> element.length());
+        
+        for (int e = 0; e < compact.numEdges(); ++e) {
+            String element = compact.edge(e).element();
+            assertEquals("Edge weight is not correct", element.length(), weights[e], 0.0);
+            assertEquals("Edge navigability is not correct", element.length() % 2 == 0, compact.isNavigable(e));
+        }
+    }
+
+    /**
+     * Test that the snapshot does not change with the source graph.
+     */
+    @Test
+    public void testSnapshot() {
+        digraph.insertEdge(vD, vA, "e");
+        digraph.removeVertex(vB);
+        
+        assertEquals("Number of vertices is not correct", 4, compact.numVertices());
+        assertEquals("Number of edges is not correct", 4, compact.numEdges());
+        assertEquals("Outbound edges from vertex D are not correct", new ArrayList<>(), outboundEdges(vD));
+    }
+
+    /**
+     * Test of idOf method with a vertex of another graph, of class CompactDiGraph.
+     */
+    @Test(expected = InvalidVertexException.class)
+    public void testIdOfInvalidVertex() {
+        compact.idOf(new DiGraph<String, String>().insertVertex("A"));
+    }
+    
+    private List<IEdge<String, String>> outboundEdges(IVertex<String> vertex) {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        int id = compact.idOf(vertex);
+        for (int e = compact.outboundStart(id); e < compact.outboundEnd(id); ++e) {
+            listEdges.add(compact.edge(e));
+        }
+        return listEdges;
+    }
+    
+    private List<IEdge<String, String>> inboundEdges(IVertex<String> vertex) {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        int id = compact.idOf(vertex);
+        for (int i = compact.inboundStart(id); i < compact.inboundEnd(id); ++i) {
+            listEdges.add(compact.edge(compact.inboundEdge(i)));
+        }
+        return listEdges;
+    }
+    
+    private List<IEdge<String, String>> navigableOutboundEdges(IVertex<String> vertex) {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        int id = compact.idOf(vertex);
+        for (int i = compact.outboundStart(id, true); i < compact.outboundEnd(id, true); ++i) {
+            listEdges.add(compact.edge(compact.outboundEdge(i, true)));
+        }
+        return listEdges;
+    }
+    
+    private List<IEdge<String, String>> navigableInboundEdges(IVertex<String> vertex) {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        int id = compact.idOf(vertex);
+        for (int i = compact.inboundStart(id, true); i < compact.inboundEnd(id, true); ++i) {
+            listEdges.add(compact.edge(compact.inboundEdge(i, true)));
+        }
+        return listEdges;
+    }
+    
+}
@@ -0,0 +1,159 @@
+package digraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentDiGraphTest {
+
+    private ConcurrentDiGraph<String, String> digraph;
+    private IVertex<String> vA, vB, vC;
+    private IEdge<String, String> ea, eb;
+
+    @Before
+    public void setUp() {
+        DiGraph<String, String> source = new DiGraph<>();
+
+        // Add vertices
+        vA = source.insertVertex("A");
+        vB = source.insertVertex("B");
+        vC = source.insertVertex("C");
+
+        // Add edges
+        ea = source.insertEdge(vA, vB, "a");
+        eb = source.insertEdge(vB, vC, "b");
+
+        digraph = new ConcurrentDiGraph<>(source);
+    }
+
+    /**
+     * Test that the graph keeps the vertices and edges of the copied graph.
+     */
+    @Test
+    public void testCopy() {
+        assertEquals("Number of vertices is not correct", 3, digraph.numVertices());
+        assertEquals("Number of edges is not correct", 2, digraph.numEdges());
+        assertSame("Vertex is not correct", vA, digraph.getVertexByElement("A"));
+        assertSame("Edge is not correct", ea, digraph.getEdgeByElement("a", "A"));
+        assertTrue("Vertices should be adjacent", digraph.areAdjacent(vB, vC));
+    }
+
+    /**
+     * Test of insertEdge and removeVertex methods, of class ConcurrentDiGraph.
+     */
+    @Test
+    public void testChanges() {
+        IEdge<String, String> ec = digraph.insertEdge(vC, vA, "c");
+
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        listEdges.add(ec);
+        assertEquals("Accedent edges from vertex C are not correct", listEdges, toList(digraph.accedentEdges(vC)));
+
+        digraph.removeVertex(vB);
+        assertEquals("Number of vertices is not correct", 2, digraph.numVertices());
+        assertEquals("Number of edges is not correct", 1, digraph.numEdges());
+    }
+
+    /**
+     * Test that a snapshot does not change with the graph.
+     */
+    @Test
+    public void testSnapshot() {
+        IDiGraph<String, String> snapshot = digraph.snapshot();
+        Iterable<IEdge<String, String>> edges = digraph.edges();
+
+        digraph.insertEdge(vC, vA, "c");
+        digraph.removeEdge(ea);
+
+        assertEquals("Number of edges is not correct", 2, snapshot.numEdges());
+        assertTrue("Vertices should be adjacent", snapshot.areAdjacent(vA, vB));
+        assertEquals("Edges iterable is not correct", 2, toList(edges).size());
+        assertNotSame("Snapshot is not correct", snapshot, digraph.snapshot());
+    }
+
+    /**
+     * Test that replacing an element does not change previous states.
+     */
+    @Test
+    public void testSnapshotReplace() {
+        IDiGraph<String, String> snapshot = digraph.snapshot();
+
+        digraph.replace(vB, "Z");
+
+        assertEquals("Vertex element has changed in the snapshot", "B", vB.element());
+        assertEquals("Edge is not correct", vB, snapshot.edgesBetween(vA, vB).iterator().next().vertexInbound());
+        IVertex<String> vZ = digraph.getVertexByElement("Z");
+        assertTrue("Vertices should be adjacent", digraph.areAdjacent(vA, vZ));
+        assertTrue("Vertices should be adjacent", digraph.areAdjacent(vZ, vC));
+    }
+
+    /**
+     * Test that listeners are notified once the change has been published.
+     */
+    @Test
+    public void testListeners() {
+        List<Long> versions = new ArrayList<>();
+        digraph.addListener(new IDiGraphListener<String, String>() {
+            @Override
+            public void edgeRemoved(IEdge<String, String> e) {
+                assertNull("Edge has not been removed", digraph.getEdgeByElement(e.element(), e.vertexOutbound().element()));
+                versions.add(digraph.version());
+            }
+        });
+        
+        long version = digraph.version();
+        digraph.removeVertex(vB);
+        
+        assertEquals("Number of notified edges is not correct", 2, versions.size());
+        assertTrue("Version has not increased", versions.get(0) > version);
+    }
+
+    /**
+     * Test that readers always see a consistent graph while it is changed.
+     */
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 500; ++i) {
+                IVertex<String> vertex = digraph.insertVertex("V" + i);
+                digraph.insertEdge(vA, vertex, "e" + i);
+                digraph.removeVertex(vertex);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (writer.isAlive()) {
+                    IDiGraph<String, String> snapshot = digraph.snapshot();
+                    assertEquals(snapshot.numEdges(), toList(snapshot.edges()).size());
+                    for (IEdge<String, String> edge : snapshot.accedentEdges(vA)) {
+                        assertTrue(snapshot.areAdjacent(vA, edge.vertexInbound()));
+                    }
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertNull("Reader saw an inconsistent graph", failure.get());
+        assertEquals("Number of vertices is not correct", 3, digraph.numVertices());
+        assertEquals("Number of edges is not correct", 2, digraph.numEdges());
+    }
+
+    private <T> List<T> toList(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        for (T item : iterable) {
+            list.add(item);
+        }
+        return list;
+    }
+
+}
@@ -4,6 +4,9 @@ import digraph.IVertex;
 import digraph.DiGraph;
 import digraph.IEdge;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -82,7 +85,7 @@ public class DiGraphTest {
         listVertices.add(vE);
         
         Iterable<IVertex<String>> expResult = listVertices;
-        Iterable<IVertex<String>> result = digraph.vertices();
+        Iterable<IVertex<String>> result = toList(digraph.vertices());
         assertEquals("Returned vertices list is not the same", expResult, result);
     }
 
@@ -102,10 +105,62 @@ public class DiGraphTest {
         listEdges.add(eg);
         
         Iterable<IEdge<String, String>> expResult = listEdges;
-        Iterable<IEdge<String, String>> result = digraph.edges();
+        Iterable<IEdge<String, String>> result = toList(digraph.edges());
         assertEquals("Returned edges list is not the same", expResult, result);
     }
 
+    /**
+     * Test that the vertices and edges views follow the graph changes.
+     */
+    @Test
+    public void testViews() {
+        Iterable<IVertex<String>> vertexView = digraph.vertices();
+        Iterable<IEdge<String, String>> edgeView = digraph.edges();
+        
+        IVertex<String> vF = digraph.insertVertex("F");
+        IEdge<String, String> eh = digraph.insertEdge(vF, vA, "h");
+        
+        assertTrue("Vertices view does not contain the new vertex", toList(vertexView).contains(vF));
+        assertTrue("Edges view does not contain the new edge", toList(edgeView).contains(eh));
+        
+        digraph.removeVertex(vF);
+        
+        assertFalse("Vertices view contains the removed vertex", toList(vertexView).contains(vF));
+        assertFalse("Edges view contains the removed edge", toList(edgeView).contains(eh));
+    }
+
+    /**
+     * Test that the vertices iterator fails fast, of class DiGraph.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testVerticesConcurrentModification() {
+        Iterator<IVertex<String>> iterator = digraph.vertices().iterator();
+        iterator.next();
+        digraph.insertVertex("F");
+        iterator.next();
+    }
+
+    /**
+     * Test that the edges iterator fails fast, of class DiGraph.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testEdgesConcurrentModification() {
+        Iterator<IEdge<String, String>> iterator = digraph.edges().iterator();
+        iterator.next();
+        digraph.removeEdge(ee);
+        iterator.hasNext();
+    }
+
+    /**
+     * Test that the edges iterator is read-only, of class DiGraph.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEdgesReadOnly() {
+        Iterator<IEdge<String, String>> iterator = digraph.edges().iterator();
+        iterator.next();
+        iterator.remove();
+    }
+
     /**
      * Test of accedentEdges method, of class DiGraph.
      */
@@ -210,6 +265,36 @@ public class DiGraphTest {
         assertEquals("Incident edges of vertex E are not correct", expResult, result);
     }
 
+    /**
+     * Test of accedentEdges and incidentEdges methods, of class DiGraph,
+     * after vertices and edges have been removed.
+     */
+    @Test
+    public void testAdjacentEdgesAfterRemove() {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        
+        digraph.removeVertex(vD);
+        
+        listEdges.clear();
+        listEdges.add(ea);
+        listEdges.add(ec);
+        assertEquals("Accedent edges from vertex A are not correct", listEdges, digraph.accedentEdges(vA));
+        
+        listEdges.clear();
+        assertEquals("Accedent edges from vertex B are not correct", listEdges, digraph.accedentEdges(vB));
+        assertEquals("Incident edges of vertex E are not correct", listEdges, digraph.incidentEdges(vE));
+        
+        digraph.removeEdge(ec);
+        
+        listEdges.clear();
+        listEdges.add(ef);
+        assertEquals("Incident edges of vertex C are not correct", listEdges, digraph.incidentEdges(vC));
+        
+        listEdges.clear();
+        listEdges.add(ea);
+        assertEquals("Accedent edges from vertex A are not correct", listEdges, digraph.accedentEdges(vA));
+    }
+
     /**
      * Test of opposite method, of class DiGraph.
      */
@@ -278,6 +363,33 @@ public class DiGraphTest {
         assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(vD, vE), true);
     }
     
+    /**
+     * Test of edgesBetween method, of class DiGraph.
+     */
+    @Test
+    public void testEdgesBetween() {
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        
+        listEdges.add(ea);
+        assertEquals("Edges between vertex A and B are not correct", listEdges, digraph.edgesBetween(vA, vB));
+        
+        IEdge<String, String> eh = digraph.insertEdge(vA, vB, "h");
+        listEdges.add(eh);
+        assertEquals("Edges between vertex A and B are not correct", listEdges, digraph.edgesBetween(vA, vB));
+        
+        listEdges.clear();
+        assertEquals("Edges between vertex B and A are not correct", listEdges, digraph.edgesBetween(vB, vA));
+        
+        digraph.removeEdge(ea);
+        digraph.removeEdge(eh);
+        assertEquals("Edges between vertex A and B are not correct", listEdges, digraph.edgesBetween(vA, vB));
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(vA, vB), false);
+        
+        digraph.removeVertex(vE);
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(vD, vA), false);
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(vA, vD), true);
+    }
+    
     /**
      * Test of removeVertex method, of class DiGraph.
      */
@@ -292,7 +404,7 @@ public class DiGraphTest {
         listVertices.add(vE);
         
         Iterable<IVertex<String>> expVertices = listVertices;
-        Iterable<IVertex<String>> graphVertices = digraph.vertices();
+        Iterable<IVertex<String>> graphVertices = toList(digraph.vertices());
         
         assertEquals("The vertex has not been removed", expVertices, graphVertices);
         assertEquals("Removed vertex is not the specfied one", removedVertex, "D");
@@ -314,7 +426,7 @@ public class DiGraphTest {
         listEdges.add(eg);
         
         Iterable<IEdge<String, String>> expEdges = listEdges;
-        Iterable<IEdge<String, String>> graphEdges = digraph.edges();
+        Iterable<IEdge<String, String>> graphEdges = toList(digraph.edges());
         
         assertEquals("The edge has not been removed", expEdges, graphEdges);
         assertEquals("Removed edge is not the specfied one", removedEdge, "d");
@@ -340,6 +452,228 @@ public class DiGraphTest {
         
         assertEquals("Edge element has not been replaced", ea.element(), "new");
         assertEquals("Old element of replaced edge is not correct", oldEdge, "a");
+        assertSame("Replaced edge is not found by its new element", ea, digraph.getEdgeByElement("new", "A"));
+        assertNull("Replaced edge is still found by its old element", digraph.getEdgeByElement("a", "A"));
+    }
+
+    /**
+     * Test that vertices and edges of another graph are rejected, even when
+     * they store equal elements.
+     */
+    @Test
+    public void testForeignVertexAndEdge() {
+        DiGraph<String, String> other = new DiGraph<>();
+        IVertex<String> otherA = other.insertVertex("A");
+        IVertex<String> otherB = other.insertVertex("B");
+        IEdge<String, String> otherEdge = other.insertEdge(otherA, otherB, "a");
+        
+        try {
+            digraph.accedentEdges(otherA);
+            fail("Vertex of another graph should be rejected");
+        } catch (InvalidVertexException e) {
+        }
+        
+        try {
+            digraph.removeEdge(otherEdge);
+            fail("Edge of another graph should be rejected");
+        } catch (InvalidEdgeException e) {
+        }
+        
+        assertSame("Edge has been removed", ea, digraph.getEdgeByElement("a", "A"));
+    }
+
+    /**
+     * Test of version method, of class DiGraph.
+     */
+    @Test
+    public void testVersion() {
+        long version = digraph.version();
+        
+        digraph.insertVertex("F");
+        assertTrue("Version has not increased", digraph.version() > version);
+        version = digraph.version();
+        
+        digraph.replace(ea, "new");
+        assertTrue("Version has not increased", digraph.version() > version);
+        version = digraph.version();
+        
+        try {
+            digraph.insertVertex("A");
+            fail("Duplicated vertex should not be inserted");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Version has changed", version, digraph.version());
+        }
+    }
+
+    /**
+     * Test of addListener and removeListener methods, of class DiGraph.
+     */
+    @Test
+    public void testListeners() {
+        List<String> events = new ArrayList<>();
+        IDiGraphListener<String, String> listener = new IDiGraphListener<String, String>() {
+            @Override
+            public void vertexInserted(IVertex<String> v) {
+                events.add("+" + v.element());
+            }
+            
+            @Override
+            public void edgeInserted(IEdge<String, String> e) {
+                events.add("+" + e.element());
+            }
+            
+            @Override
+            public void vertexRemoved(IVertex<String> v) {
+                events.add("-" + v.element());
+            }
+            
+            @Override
+            public void edgeRemoved(IEdge<String, String> e) {
+                events.add("-" + e.element());
+            }
+            
+            @Override
+            public void vertexReplaced(IVertex<String> v, String oldElement) {
+                events.add(oldElement + ">" + v.element());
+            }
+        };
+        digraph.addListener(listener);
+        
+        IVertex<String> vF = digraph.insertVertex("F");
+        digraph.insertEdge(vF, vA, "h");
+        digraph.replace(vF, "G");
+        digraph.removeVertex(vF);
+        digraph.removeListener(listener);
+        digraph.insertVertex("H");
+        
+        List<String> expEvents = new ArrayList<>();
+        expEvents.add("+F");
+        expEvents.add("+h");
+        expEvents.add("F>G");
+        expEvents.add("-h");
+        expEvents.add("-G");
+        assertEquals("Notified events are not correct", expEvents, events);
+    }
+
+    /**
+     * Test of snapshot method, of class DiGraph.
+     */
+    @Test
+    public void testSnapshot() {
+        DiGraph<String, String> snapshot = digraph.snapshot();
+        assertEquals("Snapshot version is not correct", digraph.version(), snapshot.version());
+        
+        digraph.removeVertex(vA);
+        IVertex<String> vF = snapshot.insertVertex("F");
+        
+        assertEquals("Number of vertices is not correct", 4, digraph.numVertices());
+        assertEquals("Number of edges is not correct", 3, digraph.numEdges());
+        assertNull("Vertex inserted in the snapshot is in the graph", digraph.getVertexByElement("F"));
+        
+        assertEquals("Number of vertices is not correct", 6, snapshot.numVertices());
+        assertEquals("Number of edges is not correct", 7, snapshot.numEdges());
+        assertTrue("Vertices should be adjacent", snapshot.areAdjacent(vA, vB));
+        assertSame("Vertex is not correct", vF, snapshot.getVertexByElement("F"));
+    }
+    
+    /**
+     * Test that replacing and removing in the graph does not change the
+     * vertices and edges of a snapshot, of class DiGraph.
+     */
+    @Test
+    public void testSnapshotReplace() {
+        DiGraph<String, String> snapshot = digraph.snapshot();
+        
+        digraph.replace(vA, "Z");
+        digraph.replace(ee, "h");
+        digraph.removeVertex(vB);
+        
+        assertEquals("Vertex element has changed in the snapshot", "A", vA.element());
+        assertEquals("Edge element has changed in the snapshot", "e", ee.element());
+        assertSame("Vertex is not correct", vA, snapshot.getVertexByElement("A"));
+        assertNull("Replaced vertex is in the snapshot", snapshot.getVertexByElement("Z"));
+        assertSame("Edge is not correct", ee, snapshot.getEdgeByElement("e", "D"));
+        assertSame("Edge is not correct", eg, snapshot.getEdgeByElement("g", "C"));
+        assertEquals("Number of vertices is not correct", 5, snapshot.numVertices());
+        assertEquals("Number of edges is not correct", 7, snapshot.numEdges());
+        assertTrue("Vertices should be adjacent", snapshot.areAdjacent(vA, vB));
+        
+        IVertex<String> vZ = digraph.getVertexByElement("Z");
+        assertNotSame("Replaced vertex is shared with the snapshot", vA, vZ);
+        assertNull("Old element is in the graph", digraph.getVertexByElement("A"));
+        assertEquals("Number of vertices is not correct", 4, digraph.numVertices());
+        assertEquals("Number of edges is not correct", 5, digraph.numEdges());
+        assertTrue("Vertices should be adjacent", digraph.areAdjacent(vZ, vD));
+        assertTrue("Vertices should be adjacent", digraph.areAdjacent(vC, vZ));
+        assertSame("Edge does not reach the replaced vertex", vZ, digraph.getEdgeByElement("g", "C").vertexInbound());
+        assertNotNull("Replaced edge is not found by its new element", digraph.getEdgeByElement("h", "D"));
+        
+        List<IEdge<String, String>> listEdges = new ArrayList<>();
+        for (IEdge<String, String> edge : digraph.accedentEdges(vZ)) {
+            assertSame("Edge does not leave the replaced vertex", vZ, edge.vertexOutbound());
+            listEdges.add(edge);
+        }
+        assertEquals("Number of accedent edges is not correct", 2, listEdges.size());
+    }
+    
+    /**
+     * Test of build method, of class DiGraph.Builder.
+     */
+    @Test
+    public void testBuilder() {
+        DiGraph.Builder<String, String> builder = new DiGraph.Builder<>();
+        builder.addVertex("A");
+        builder.addVertices(Arrays.asList("B", "C"));
+        builder.addEdge("A", "B", "a");
+        builder.addEdge("B", "A", "a");
+        builder.addEdge("B", "C", "b");
+        DiGraph<String, String> built = builder.build();
+        
+        assertEquals("Number of vertices is not correct", 3, built.numVertices());
+        assertEquals("Number of edges is not correct", 2, built.numEdges());
+        assertEquals("Version is not correct", 0, built.version());
+        
+        IVertex<String> builtA = built.getVertexByElement("A");
+        IVertex<String> builtB = built.getVertexByElement("B");
+        IVertex<String> builtC = built.getVertexByElement("C");
+        assertTrue("Vertices should be adjacent", built.areAdjacent(builtA, builtB));
+        assertTrue("Vertices should be adjacent", built.areAdjacent(builtB, builtA));
+        assertFalse("Vertices should not be adjacent", built.areAdjacent(builtC, builtB));
+        assertEquals("Accedent edges from vertex B are not correct", 2, toList(built.accedentEdges(builtB)).size());
+        assertSame("Edge is not correct", builtC, built.getEdgeByElement("b", "B").vertexInbound());
+    }
+
+    /**
+     * Test of build method with a repeated edge, of class DiGraph.Builder.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderRepeatedEdge() {
+        new DiGraph.Builder<String, String>()
+                .addVertex("A")
+                .addVertex("B")
+                .addEdge("A", "B", "a")
+                .addEdge("A", "B", "a")
+                .build();
+    }
+
+    /**
+     * Test of build method with an edge to a missing vertex, of class
+     * DiGraph.Builder.
+     */
+    @Test(expected = InvalidVertexException.class)
+    public void testBuilderMissingVertex() {
+        new DiGraph.Builder<String, String>()
+                .addVertex("A")
+                .addEdge("A", "B", "a")
+                .build();
+    }
+    
+    private <T> List<T> toList(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        for (T element : iterable) {
+            list.add(element);
+        }
+        return list;
     }
     
 }
@@ -0,0 +1,132 @@
+package digraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IntDiGraphTest {
+    
+    private IntDiGraph digraph;
+    private int ea, eb, ec, ed;
+    
+    @Before
+    public void setUp() {
+        digraph = new IntDiGraph(2, 1, 1);
+        
+        // Add vertices
+        digraph.insertVertex(10);
+        digraph.insertVertex(-20);
+        digraph.insertVertex(30);
+        digraph.insertVertex(40);
+        
+        // Add edges
+        ea = digraph.insertEdge(10, -20, 1, 1.5, 100);
+        eb = digraph.insertEdge(10, 30, 2, 2.5, 200);
+        ec = digraph.insertEdge(30, 10, 3, 3.5, 300);
+        ed = digraph.insertEdge(-20, 30, 4);
+    }
+
+    /**
+     * Test of numVertices, numEdges and containsVertex methods, of class IntDiGraph.
+     */
+    @Test
+    public void testSize() {
+        assertEquals("Number of vertices is not correct", 4, digraph.numVertices());
+        assertEquals("Number of edges is not correct", 4, digraph.numEdges());
+        assertTrue("Vertex -20 does not exist", digraph.containsVertex(-20));
+        assertFalse("Vertex 20 exists", digraph.containsVertex(20));
+        
+        for (int id = 100; id < 1100; ++id) {
+            digraph.insertVertex(id);
+        }
+        assertEquals("Number of vertices is not correct", 1004, digraph.numVertices());
+        for (int id = 100; id < 1100; ++id) {
+            assertEquals("Vertex id is not correct", id, digraph.vertexId(digraph.indexOf(id)));
+        }
+    }
+
+    /**
+     * Test of firstOutbound and nextOutbound methods, of class IntDiGraph.
+     */
+    @Test
+    public void testOutboundEdges() {
+        assertEquals("Outbound edges from vertex 10 are not correct", Arrays.asList(eb, ea), outboundEdges(10));
+        assertEquals("Outbound edges from vertex -20 are not correct", Arrays.asList(ed), outboundEdges(-20));
+        assertEquals("Outbound edges from vertex 30 are not correct", Arrays.asList(ec), outboundEdges(30));
+        assertEquals("Outbound edges from vertex 40 are not correct", Arrays.asList(), outboundEdges(40));
+    }
+
+    /**
+     * Test of firstInbound and nextInbound methods, of class IntDiGraph.
+     */
+    @Test
+    public void testInboundEdges() {
+        assertEquals("Inbound edges of vertex 10 are not correct", Arrays.asList(ec), inboundEdges(10));
+        assertEquals("Inbound edges of vertex -20 are not correct", Arrays.asList(ea), inboundEdges(-20));
+        assertEquals("Inbound edges of vertex 30 are not correct", Arrays.asList(ed, eb), inboundEdges(30));
+        assertEquals("Inbound edges of vertex 40 are not correct", Arrays.asList(), inboundEdges(40));
+    }
+
+    /**
+     * Test of edgeId, source, target and attribute methods, of class IntDiGraph.
+     */
+    @Test
+    public void testEdgeData() {
+        assertEquals("Edge id is not correct", 3, digraph.edgeId(ec));
+        assertEquals("Edge source is not correct", 30, digraph.source(ec));
+        assertEquals("Edge target is not correct", 10, digraph.target(ec));
+        assertEquals("Edge attribute is not correct", 3.5, digraph.attribute(ec, 0), 0.0);
+        assertEquals("Edge attribute is not correct", 300, digraph.attribute(ec, 1), 0.0);
+        assertEquals("Edge attribute is not correct", 0, digraph.attribute(ed, 1), 0.0);
+        
+        digraph.setAttribute(ed, 1, 400);
+        assertEquals("Edge attribute is not correct", 400, digraph.attribute(ed, 1), 0.0);
+    }
+
+    /**
+     * Test of areAdjacent method, of class IntDiGraph.
+     */
+    @Test
+    public void testAreAdjacent() {
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(10, -20), true);
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(-20, 10), false);
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(30, 10), true);
+        assertEquals("Are adjacent vertex is not correct", digraph.areAdjacent(10, 40), false);
+    }
+
+    /**
+     * Test of insertVertex method with a repeated id, of class IntDiGraph.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertRepeatedVertex() {
+        digraph.insertVertex(30);
+    }
+
+    /**
+     * Test of insertEdge method with a missing vertex, of class IntDiGraph.
+     */
+    @Test(expected = InvalidVertexException.class)
+    public void testInsertEdgeInvalidVertex() {
+        digraph.insertEdge(10, 50, 5);
+    }
+    
+    private List<Integer> outboundEdges(int id) {
+        List<Integer> listEdges = new ArrayList<>();
+        for (int e = digraph.firstOutbound(id); e != -1; e = digraph.nextOutbound(e)) {
+            listEdges.add(e);
+        }
+        return listEdges;
+    }
+    
+    private List<Integer> inboundEdges(int id) {
+        List<Integer> listEdges = new ArrayList<>();
+        for (int e = digraph.firstInbound(id); e != -1; e = digraph.nextInbound(e)) {
+            listEdges.add(e);
+        }
+        return listEdges;
+    }
+    
+}